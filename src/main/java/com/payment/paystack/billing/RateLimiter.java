@@ -0,0 +1,30 @@
+package com.payment.paystack.billing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces calls evenly: each caller reserves the next free slot and sleeps
+ * until it arrives, so bursts from several partitions never exceed the rate.
+ */
+class RateLimiter {
+    
+    private final long intervalNanos;
+    private long nextFree = System.nanoTime();
+    
+    RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(permitsPerSecond, 0.001));
+    }
+    
+    void acquire() throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextFree, now);
+            nextFree = slot + intervalNanos;
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.payment.paystack.billing;
+
+import com.payment.paystack.cluster.ClusterMembership;
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.config.PaystackProperties.BillingConfig;
+import com.payment.paystack.dto.VerifyTransactionResponse;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.entity.Subscription;
+import com.payment.paystack.entity.SubscriptionStatus;
+import com.payment.paystack.exception.ErrorClassifier;
+import com.payment.paystack.exception.ErrorType;
+import com.payment.paystack.exception.PaystackException;
+import com.payment.paystack.exception.UpstreamException;
+import com.payment.paystack.repository.SubscriptionRepository;
+import com.payment.paystack.repository.SubscriptionRepository.DueSubscription;
+import com.payment.paystack.service.PaystackService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Charges due subscriptions against their saved card authorizations.
+ *
+ * Subscriptions due within the horizon are loaded from the database in
+ * keyset pages and parked in a timing wheel; each tick fires the due ids.
+ * Ids are split into partitions that are drained serially on the virtual
+ * thread executor, so a subscription is never charged by two threads at
+ * once while partitions run in parallel under a shared rate limit.
+ *
+ * Every cluster member reads all due subscriptions from the shared
+ * database and keeps only the ones the hash ring assigns to it, so each is
+ * charged by exactly one member wherever it was created.
+ *
+ * Charge references are derived from the subscription and its billing
+ * cycle, so a retry after a timeout reuses the reference and Paystack
+ * rejects it as a duplicate; the outcome is then read back with verify.
+ */
+@Slf4j
+@Service
+public class RecurringBillingService {
+    
+    private static final List<SubscriptionStatus> BILLABLE =
+            List.of(SubscriptionStatus.ACTIVE, SubscriptionStatus.PAST_DUE);
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+    
+    private final SubscriptionRepository subscriptionRepository;
+    private final PaystackService paystackService;
+    private final PaystackProperties paystackProperties;
+    private final ClusterMembership clusterMembership;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService paystackVerifyExecutor;
+    private final TimingWheel wheel;
+    private final RateLimiter rateLimiter;
+    private final Partition[] partitions;
+    private final Object loadLock = new Object();
+    private Instant loadedUntil = Instant.EPOCH; // guarded by loadLock
+    
+    private final LongAdder charged = new LongAdder();
+    private final LongAdder declined = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    
+    public RecurringBillingService(SubscriptionRepository subscriptionRepository,
+                                   PaystackService paystackService,
+                                   PaystackProperties paystackProperties,
+                                   ClusterMembership clusterMembership,
+                                   TransactionTemplate transactionTemplate,
+                                   ExecutorService paystackVerifyExecutor) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.paystackService = paystackService;
+        this.paystackProperties = paystackProperties;
+        this.clusterMembership = clusterMembership;
+        this.transactionTemplate = transactionTemplate;
+        this.paystackVerifyExecutor = paystackVerifyExecutor;
+        
+        BillingConfig billing = paystackProperties.getBilling();
+        this.wheel = new TimingWheel(billing.getTick(), billing.getWheelSize(), Instant.now());
+        this.rateLimiter = new RateLimiter(billing.getRateLimit());
+        this.partitions = new Partition[Math.max(1, billing.getPartitions())];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+    
+    /**
+     * Load every subscription due before the horizon into the wheel. Overdue
+     * ones are swept up again each time, so a charge that was dropped (an
+     * error, an interrupt, a lost update, a change of owner) is retried on
+     * the next load. Ids already waiting in the wheel, queued in a partition
+     * or being charged are not added twice.
+     */
+    @Scheduled(fixedDelayString = "${paystack.billing.load-interval:PT5M}")
+    public void loadDue() {
+        if (!paystackProperties.getBilling().isEnabled()) {
+            return;
+        }
+        
+        BillingConfig billing = paystackProperties.getBilling();
+        synchronized (loadLock) {
+            Instant until = Instant.now().plus(billing.getHorizon());
+            long afterId = 0;
+            int loaded = 0;
+            List<DueSubscription> page;
+            do {
+                page = subscriptionRepository.findDue(BILLABLE, until, afterId,
+                        PageRequest.ofSize(billing.getBatchSize()));
+                for (DueSubscription due : page) {
+                    afterId = due.getId();
+                    if (isLocal(due.getId()) && wheel.schedule(due.getId(), due.getNextChargeAt())) {
+                        loaded++;
+                    }
+                }
+            } while (page.size() == billing.getBatchSize());
+            
+            loadedUntil = until;
+            log.debug("Loaded {} subscriptions due before {}", loaded, until);
+        }
+    }
+    
+    /**
+     * Hand due ids to their partitions
+     */
+    @Scheduled(fixedDelayString = "${paystack.billing.tick:PT1S}")
+    public void tick() {
+        if (!paystackProperties.getBilling().isEnabled()) {
+            return;
+        }
+        
+        for (Long id : wheel.advance(Instant.now())) {
+            Partition partition = partitions[(int) Math.floorMod(id, (long) partitions.length)];
+            partition.queue.add(id);
+            if (partition.running.compareAndSet(false, true)) {
+                paystackVerifyExecutor.execute(() -> drain(partition));
+            }
+        }
+    }
+    
+    /**
+     * Put a subscription in the wheel if its next charge falls inside the
+     * window already loaded; later ones are picked up by the loader
+     */
+    public void schedule(Subscription subscription) {
+        if (!BILLABLE.contains(subscription.getStatus()) || subscription.getNextChargeAt() == null
+                || !isLocal(subscription.getId())) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (!subscription.getNextChargeAt().isAfter(loadedUntil)) {
+                wheel.schedule(subscription.getId(), subscription.getNextChargeAt());
+            }
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("scheduled", wheel.size());
+        stats.put("charged", charged.sum());
+        stats.put("declined", declined.sum());
+        stats.put("deferred", deferred.sum());
+        stats.put("cancelled", cancelled.sum());
+        return stats;
+    }
+    
+    private void drain(Partition partition) {
+        int batchSize = paystackProperties.getBilling().getBatchSize();
+        do {
+            try {
+                List<Long> ids = new ArrayList<>();
+                Long id;
+                while ((id = partition.queue.poll()) != null) {
+                    ids.add(id);
+                    if (ids.size() == batchSize) {
+                        chargeAll(ids);
+                        ids.clear();
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    chargeAll(ids);
+                }
+            } finally {
+                partition.running.set(false);
+            }
+        } while (!partition.queue.isEmpty() && partition.running.compareAndSet(false, true));
+    }
+    
+    // Ids dropped here are still due and released, so the next load picks them up again
+    private void chargeAll(List<Long> ids) {
+        try {
+            List<Subscription> subscriptions;
+            try {
+                subscriptions = subscriptionRepository.findAllById(ids);
+            } catch (RuntimeException e) {
+                log.error("Could not load {} due subscriptions: {}", ids.size(), e.getMessage());
+                return;
+            }
+            for (Subscription subscription : subscriptions) {
+                try {
+                    chargeOne(subscription);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.error("Error billing subscription {}: {}", subscription.getId(), e.getMessage(), e);
+                }
+            }
+        } finally {
+            ids.forEach(wheel::release);
+        }
+    }
+    
+    void chargeOne(Subscription subscription) throws InterruptedException {
+        Instant dueAt = subscription.getNextChargeAt();
+        if (!BILLABLE.contains(subscription.getStatus()) || dueAt == null) {
+            return;
+        }
+        if (dueAt.isAfter(Instant.now())) {
+            wheel.release(subscription.getId());
+            schedule(subscription); // moved since it was loaded
+            return;
+        }
+        
+        String reference = referenceOf(subscription);
+        Outcome outcome = charge(subscription, reference);
+        Subscription updated = apply(subscription.getId(), dueAt, reference, outcome);
+        wheel.release(subscription.getId()); // only now that the due date has moved on
+        if (updated != null) {
+            schedule(updated);
+        }
+    }
+    
+    private Outcome charge(Subscription subscription, String reference) throws InterruptedException {
+        BillingConfig billing = paystackProperties.getBilling();
+        for (int attempt = 0; ; attempt++) {
+            rateLimiter.acquire();
+            try {
+                VerifyTransactionResponse response = paystackService.chargeAuthorization(
+                        subscription.getEmail(),
+                        subscription.getAmount(),
+                        subscription.getAuthorizationCode(),
+                        subscription.getCurrency(),
+                        reference);
+                return outcomeOf(response.getData());
+                
+            } catch (PaystackException e) {
+                if (!isRetryable(e)) {
+                    // Rejected outright, or a duplicate of a charge that already went through
+                    return verify(reference);
+                }
+                if (attempt >= billing.getMaxRetries()) {
+                    log.warn("Charge {} still failing after {} retries: {}", reference, attempt, e.getMessage());
+                    return Outcome.TRANSIENT;
+                }
+                Thread.sleep(billing.getRetryBackoff().toMillis() << Math.min(attempt, 16));
+            }
+        }
+    }
+    
+    private Outcome verify(String reference) throws InterruptedException {
+        rateLimiter.acquire();
+        try {
+            return outcomeOf(paystackService.verifyTransaction(reference).getData());
+        } catch (PaystackException e) {
+            if (ErrorClassifier.typeOf(e.getCause()) == ErrorType.UPSTREAM_CLIENT_ERROR) {
+                return Outcome.DECLINED; // the charge was never created
+            }
+            return Outcome.TRANSIENT;
+        }
+    }
+    
+    private static boolean isRetryable(PaystackException e) {
+        return e instanceof UpstreamException upstream && upstream.getType().isRetryable();
+    }
+    
+    private static Outcome outcomeOf(TransactionVerificationData data) {
+        if (data == null || data.getStatus() == null) {
+            return Outcome.TRANSIENT;
+        }
+        return switch (data.getStatus()) {
+            case "success" -> Outcome.SUCCESS;
+            case "failed", "abandoned", "reversed" -> Outcome.DECLINED;
+            default -> Outcome.TRANSIENT; // pending: checked again with the same reference
+        };
+    }
+    
+    /**
+     * Record the outcome on a fresh copy of the subscription. Optimistic
+     * locking catches a concurrent update (e.g. a cancel); the outcome is
+     * then re-applied unless the charge cycle has already moved on.
+     */
+    private Subscription apply(Long id, Instant dueAt, String reference, Outcome outcome) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Subscription fresh = subscriptionRepository.findById(id).orElse(null);
+                    if (fresh == null || !dueAt.equals(fresh.getNextChargeAt())) {
+                        return null;
+                    }
+                    update(fresh, reference, outcome);
+                    return subscriptionRepository.save(fresh);
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    log.error("Could not record {} for subscription {} ({})", outcome, id, reference);
+                    return null;
+                }
+            }
+        }
+    }
+    
+    private void update(Subscription subscription, String reference, Outcome outcome) {
+        BillingConfig billing = paystackProperties.getBilling();
+        Instant now = Instant.now();
+        boolean active = BILLABLE.contains(subscription.getStatus());
+        
+        switch (outcome) {
+            case SUCCESS -> {
+                charged.increment();
+                subscription.setLastChargeReference(reference);
+                subscription.setLastChargedAt(now);
+                subscription.setChargeCount(subscription.getChargeCount() + 1);
+                subscription.setFailedAttempts(0);
+                if (active) {
+                    subscription.setStatus(SubscriptionStatus.ACTIVE);
+                    subscription.setNextChargeAt(
+                            subscription.getNextChargeAt().plus(Duration.ofDays(subscription.getIntervalDays())));
+                }
+            }
+            case DECLINED -> {
+                declined.increment();
+                subscription.setLastChargeReference(reference);
+                int failed = subscription.getFailedAttempts() + 1;
+                subscription.setFailedAttempts(failed);
+                List<Duration> dunning = billing.getDunningSchedule();
+                if (!active) {
+                    return;
+                }
+                if (failed > dunning.size()) {
+                    cancelled.increment();
+                    subscription.setStatus(SubscriptionStatus.CANCELLED);
+                    log.info("Subscription {} cancelled after {} declined charges", subscription.getId(), failed);
+                } else {
+                    subscription.setStatus(SubscriptionStatus.PAST_DUE);
+                    subscription.setNextChargeAt(now.plus(dunning.get(failed - 1)));
+                }
+            }
+            case TRANSIENT -> {
+                deferred.increment();
+                if (active) {
+                    subscription.setNextChargeAt(now.plus(billing.getTransientRetryDelay()));
+                }
+            }
+        }
+    }
+    
+    /**
+     * One reference per billing cycle and decline: retries of the same
+     * attempt reuse it, a new attempt after a decline gets a new one
+     */
+    static String referenceOf(Subscription subscription) {
+        String reference = "SUB_" + subscription.getId() + "_" + subscription.getChargeCount();
+        return subscription.getFailedAttempts() > 0
+                ? reference + "_R" + subscription.getFailedAttempts()
+                : reference;
+    }
+    
+    private boolean isLocal(Long id) {
+        return clusterMembership.isLocal("subscription:" + id);
+    }
+    
+    private enum Outcome {
+        SUCCESS, DECLINED, TRANSIENT
+    }
+    
+    private static final class Partition {
+        final Queue<Long> queue = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean running = new AtomicBoolean();
+    }
+}
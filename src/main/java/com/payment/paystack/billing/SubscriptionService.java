@@ -0,0 +1,91 @@
+package com.payment.paystack.billing;
+
+import com.payment.paystack.entity.SavedAuthorization;
+import com.payment.paystack.entity.Subscription;
+import com.payment.paystack.entity.SubscriptionStatus;
+import com.payment.paystack.exception.PaystackException;
+import com.payment.paystack.repository.SavedAuthorizationRepository;
+import com.payment.paystack.repository.SubscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SubscriptionService {
+    
+    private static final int MAX_CANCEL_ATTEMPTS = 3;
+    
+    private final SubscriptionRepository subscriptionRepository;
+    private final SavedAuthorizationRepository savedAuthorizationRepository;
+    private final RecurringBillingService recurringBillingService;
+    
+    /**
+     * Create a subscription. Without an authorization code the customer's
+     * latest reusable card authorization is used.
+     */
+    public Subscription create(
+            String email,
+            BigDecimal amount,
+            String currency,
+            int intervalDays,
+            String authorizationCode,
+            Instant firstChargeAt) {
+        
+        if (intervalDays <= 0) {
+            throw new PaystackException("intervalDays must be positive");
+        }
+        
+        String authorization = authorizationCode != null
+                ? authorizationCode
+                : savedAuthorizationRepository.findFirstByEmailAndReusableTrueOrderByCreatedAtDesc(email)
+                        .map(SavedAuthorization::getAuthorizationCode)
+                        .orElseThrow(() -> new PaystackException("No reusable authorization saved for " + email));
+        
+        Instant now = Instant.now();
+        Subscription subscription = subscriptionRepository.save(Subscription.builder()
+                .email(email)
+                .authorizationCode(authorization)
+                .amount(amount)
+                .currency(currency != null ? currency : "NGN")
+                .intervalDays(intervalDays)
+                .status(SubscriptionStatus.ACTIVE)
+                .nextChargeAt(firstChargeAt != null ? firstChargeAt : now)
+                .createdAt(now)
+                .build());
+        
+        log.info("Created subscription {} for {} every {} days", subscription.getId(), email, intervalDays);
+        recurringBillingService.schedule(subscription);
+        return subscription;
+    }
+    
+    public Optional<Subscription> find(Long id) {
+        return subscriptionRepository.findById(id);
+    }
+    
+    /**
+     * Stop future charges. A charge already in flight is still recorded; if
+     * it updates the subscription first, the cancel is retried on a fresh copy.
+     */
+    public Optional<Subscription> cancel(Long id) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return subscriptionRepository.findById(id).map(subscription -> {
+                    subscription.setStatus(SubscriptionStatus.CANCELLED);
+                    return subscriptionRepository.save(subscription);
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_CANCEL_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Subscription {} changed while cancelling, retrying", id);
+            }
+        }
+    }
+}
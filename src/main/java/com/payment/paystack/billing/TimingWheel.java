@@ -0,0 +1,100 @@
+package com.payment.paystack.billing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel of subscription ids.
+ *
+ * Each id sits in the bucket of its due tick, so scheduling is O(1) and a
+ * tick only scans the buckets it passes instead of every pending id. Ids due
+ * more than one lap ahead share a bucket with earlier ones and are skipped
+ * until their own tick comes round. Past-due ids fire on the next advance.
+ * A fired id stays claimed until it is released, so an id still queued or
+ * being charged is not scheduled a second time.
+ */
+class TimingWheel {
+    
+    private final long tickMillis;
+    private final List<Entry>[] buckets;
+    private final Set<Long> pending = new HashSet<>();
+    private final Set<Long> fired = new HashSet<>();
+    private long currentTick; // next tick to fire
+    
+    @SuppressWarnings("unchecked")
+    TimingWheel(Duration tick, int wheelSize, Instant start) {
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.buckets = new List[Math.max(1, wheelSize)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.currentTick = tickOf(start);
+    }
+    
+    /**
+     * Schedule an id; returns false if it is already waiting in the wheel
+     * or fired and not yet released
+     */
+    synchronized boolean schedule(long id, Instant dueAt) {
+        if (fired.contains(id) || !pending.add(id)) {
+            return false;
+        }
+        long tick = Math.max(tickOf(dueAt), currentTick);
+        buckets[bucketOf(tick)].add(new Entry(id, tick));
+        return true;
+    }
+    
+    /**
+     * Fire every id due up to now, in due order per bucket
+     */
+    synchronized List<Long> advance(Instant now) {
+        long target = tickOf(now);
+        if (target < currentTick) {
+            return List.of();
+        }
+        
+        List<Long> due = new ArrayList<>();
+        long scan = Math.min(target - currentTick + 1, buckets.length);
+        for (long tick = currentTick; tick < currentTick + scan; tick++) {
+            Iterator<Entry> entries = buckets[bucketOf(tick)].iterator();
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                if (entry.tick() <= target) {
+                    entries.remove();
+                    pending.remove(entry.id());
+                    fired.add(entry.id());
+                    due.add(entry.id());
+                }
+            }
+        }
+        currentTick = target + 1;
+        return due;
+    }
+    
+    /**
+     * Let a fired id be scheduled again once its charge is done or dropped
+     */
+    synchronized void release(long id) {
+        fired.remove(id);
+    }
+    
+    synchronized int size() {
+        return pending.size();
+    }
+    
+    private long tickOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), tickMillis);
+    }
+    
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+    
+    private record Entry(long id, long tick) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.payment.paystack.cluster;
+
+import com.payment.paystack.config.PaystackProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Current cluster members and the hash ring that assigns references to
+ * them. Membership changes build a new ring and swap it in atomically.
+ *
+ * Members must share one database: ownership only decides which node
+ * writes a row, and every node reads the ledger, saved authorizations,
+ * subscriptions and sync state from the store.
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+    
+    private final String self;
+    private final int virtualNodes;
+    private final AtomicReference<ConsistentHashRing> ring;
+    
+    public ClusterMembership(PaystackProperties paystackProperties) {
+        PaystackProperties.ClusterConfig config = paystackProperties.getCluster();
+        this.self = normalize(config.getSelf());
+        this.virtualNodes = config.getVirtualNodes();
+        this.ring = new AtomicReference<>(buildRing(config.getMembers()));
+        
+        if (self == null && !config.getMembers().isEmpty()) {
+            log.warn("paystack.cluster.members is set without paystack.cluster.self; running as a single node");
+        }
+    }
+    
+    /**
+     * Warn when a cluster runs on the default in-memory database, which
+     * no other process can see
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkSharedDatastore(ApplicationReadyEvent event) {
+        String url = event.getApplicationContext().getEnvironment().getProperty("spring.datasource.url");
+        if (getMembers().size() > 1 && (url == null || url.startsWith("jdbc:h2:mem:"))) {
+            log.warn("Cluster members must share one database, but spring.datasource.url is {}; "
+                    + "writes owned by other nodes will not be visible here", url != null ? url : "unset");
+        }
+    }
+    
+    /**
+     * Node that owns the key, or null when running as a single node
+     */
+    public String ownerOf(String key) {
+        return ring.get().ownerOf(key);
+    }
+    
+    /**
+     * Check if this node owns the key. Always true for a single node.
+     */
+    public boolean isLocal(String key) {
+        String owner = ownerOf(key);
+        return owner == null || owner.equals(self);
+    }
+    
+    public boolean isSelf(String node) {
+        return node != null && node.equals(self);
+    }
+    
+    public String getSelf() {
+        return self;
+    }
+    
+    public List<String> getMembers() {
+        return ring.get().getNodes();
+    }
+    
+    /**
+     * Replace the member list. Only keys next to the added or removed
+     * nodes change owner.
+     */
+    public void updateMembers(Collection<String> members) {
+        ConsistentHashRing next = buildRing(members);
+        ring.set(next);
+        log.info("Cluster membership updated: {}", next.getNodes());
+    }
+    
+    private ConsistentHashRing buildRing(Collection<String> members) {
+        Set<String> nodes = new LinkedHashSet<>();
+        if (self != null) {
+            members.stream().map(ClusterMembership::normalize).filter(Objects::nonNull).forEach(nodes::add);
+            if (!nodes.isEmpty()) {
+                nodes.add(self);
+            }
+        }
+        return new ConsistentHashRing(nodes, virtualNodes);
+    }
+    
+    private static String normalize(String node) {
+        if (node == null || node.isBlank()) {
+            return null;
+        }
+        String trimmed = node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,65 @@
+package com.payment.paystack.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring over a set of nodes.
+ *
+ * Each node is placed at several points (virtual nodes) so keys spread
+ * evenly, and adding or removing a node only moves the keys on the arcs
+ * next to its points: about 1/N of all keys.
+ */
+public final class ConsistentHashRing {
+    
+    private final NavigableMap<Long, String> ring;
+    private final List<String> nodes;
+    
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = nodes.stream().distinct().sorted().toList();
+        TreeMap<Long, String> points = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+        this.ring = points;
+    }
+    
+    /**
+     * Node that owns the key, or null if the ring is empty
+     */
+    public String ownerOf(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+    
+    public List<String> getNodes() {
+        return nodes;
+    }
+    
+    /**
+     * 64-bit FNV-1a with a final avalanche step so that similar keys
+     * (sequential references) land far apart on the ring
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
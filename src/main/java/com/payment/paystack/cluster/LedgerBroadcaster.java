@@ -0,0 +1,131 @@
+package com.payment.paystack.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.config.PaystackConfigHolder;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import com.payment.paystack.event.TransferFinalizedEvent;
+import com.payment.paystack.service.TransactionLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Passes every final state this node records on to the other members.
+ *
+ * The ledger itself lives in the database all members share, but status
+ * streams, stats and the ledger cache are per node and are fed by
+ * finalized events, which only the node that wrote the row publishes.
+ * Members republish what they receive as replicated events, which are not
+ * sent on again. A member that misses one still reads the row from the
+ * shared store; only its stats lag until the next rebuild.
+ */
+@Slf4j
+@Component
+public class LedgerBroadcaster {
+    
+    public static final String TRANSACTION_EVENTS_PATH = "/api/paystack/cluster/ledger/events/transactions";
+    public static final String TRANSFER_EVENTS_PATH = "/api/paystack/cluster/ledger/events/transfers";
+    
+    private final ClusterMembership clusterMembership;
+    private final PaystackConfigHolder paystackConfigHolder;
+    private final PeerClient peerClient;
+    private final TransactionLedger transactionLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService paystackVerifyExecutor;
+    
+    public LedgerBroadcaster(ClusterMembership clusterMembership,
+                             PaystackConfigHolder paystackConfigHolder,
+                             PeerClient peerClient,
+                             TransactionLedger transactionLedger,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             ExecutorService paystackVerifyExecutor) {
+        this.clusterMembership = clusterMembership;
+        this.paystackConfigHolder = paystackConfigHolder;
+        this.peerClient = peerClient;
+        this.transactionLedger = transactionLedger;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.paystackVerifyExecutor = paystackVerifyExecutor;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionFinalized(TransactionFinalizedEvent event) {
+        if (!event.replicated()) {
+            broadcast(TRANSACTION_EVENTS_PATH, event.transaction().getReference(), event);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransferFinalized(TransferFinalizedEvent event) {
+        if (!event.replicated()) {
+            broadcast(TRANSFER_EVENTS_PATH, event.transfer().getTransferCode(), event);
+        }
+    }
+    
+    /**
+     * Republish a transaction event recorded by another member
+     */
+    public void receiveTransaction(String payload) throws JsonProcessingException {
+        JsonNode event = objectMapper.readTree(payload);
+        TransactionRecord transaction = objectMapper.treeToValue(event.get("transaction"), TransactionRecord.class);
+        TransactionRecord previous = event.hasNonNull("previous")
+                ? objectMapper.treeToValue(event.get("previous"), TransactionRecord.class)
+                : null;
+        // Events may arrive out of order, so the cache is dropped rather than overwritten
+        transactionLedger.evict(transaction.getReference());
+        eventPublisher.publishEvent(new TransactionFinalizedEvent(transaction, previous, true));
+    }
+    
+    /**
+     * Republish a transfer event recorded by another member
+     */
+    public void receiveTransfer(String payload) throws JsonProcessingException {
+        JsonNode event = objectMapper.readTree(payload);
+        TransferRecord transfer = objectMapper.treeToValue(event.get("transfer"), TransferRecord.class);
+        TransferRecord previous = event.hasNonNull("previous")
+                ? objectMapper.treeToValue(event.get("previous"), TransferRecord.class)
+                : null;
+        eventPublisher.publishEvent(new TransferFinalizedEvent(transfer, previous, true));
+    }
+    
+    private void broadcast(String path, String key, Object event) {
+        List<String> peers = clusterMembership.getMembers().stream()
+                .filter(member -> !clusterMembership.isSelf(member))
+                .toList();
+        if (peers.isEmpty()) {
+            return;
+        }
+        
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize the final status of {}: {}", key, e.getMessage());
+            return;
+        }
+        String signature = paystackConfigHolder.current().sign(body);
+        if (signature == null) {
+            log.warn("No webhook secret to sign ledger events with, {} not sent to other members", key);
+            return;
+        }
+        
+        // Off the request thread: a slow member must not hold up the caller
+        for (String peer : peers) {
+            paystackVerifyExecutor.execute(() -> {
+                if (peerClient.post(peer, path, body, signature) != PeerClient.Delivery.DELIVERED) {
+                    log.warn("{} missed the final status of {}; its stats catch up on the next rebuild", peer, key);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.payment.paystack.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.config.PaystackConfigHolder;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.service.TransactionLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends each ledger write to the node that owns its reference, so a
+ * transaction is only ever written by one node at a time, whether the
+ * state came from a webhook, a verify call, a batch or a charge.
+ *
+ * Forwarded writes are signed with the webhook secret, which all nodes
+ * share. As with webhooks, a write is applied here only if the owner
+ * could not be reached; once the owner has answered it is not repeated.
+ */
+@Slf4j
+@Component
+public class LedgerRouter {
+    
+    public static final String TRANSACTIONS_PATH = "/api/paystack/cluster/ledger/transactions";
+    
+    private final ClusterMembership clusterMembership;
+    private final TransactionLedger transactionLedger;
+    private final PaystackConfigHolder paystackConfigHolder;
+    private final PeerClient peerClient;
+    private final ReferenceLocks referenceLocks;
+    private final ObjectMapper objectMapper;
+    
+    public LedgerRouter(ClusterMembership clusterMembership,
+                        TransactionLedger transactionLedger,
+                        PaystackConfigHolder paystackConfigHolder,
+                        PeerClient peerClient,
+                        ReferenceLocks referenceLocks,
+                        ObjectMapper objectMapper) {
+        this.clusterMembership = clusterMembership;
+        this.transactionLedger = transactionLedger;
+        this.paystackConfigHolder = paystackConfigHolder;
+        this.peerClient = peerClient;
+        this.referenceLocks = referenceLocks;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Record a transaction state here or on its owner node. Only final
+     * states are kept.
+     */
+    public void record(TransactionVerificationData data) throws JsonProcessingException {
+        if (data == null || data.getReference() == null || !TransactionLedger.isFinal(data.getStatus())) {
+            return;
+        }
+        
+        String reference = data.getReference();
+        String owner = clusterMembership.ownerOf(reference);
+        if (owner == null || clusterMembership.isSelf(owner)) {
+            recordLocally(data);
+            return;
+        }
+        
+        byte[] body = objectMapper.writeValueAsBytes(data);
+        String signature = paystackConfigHolder.current().sign(body);
+        if (signature == null) {
+            log.warn("No webhook secret to sign ledger writes with, recording {} locally", reference);
+            recordLocally(data);
+            return;
+        }
+        
+        switch (peerClient.post(owner, TRANSACTIONS_PATH, body, signature)) {
+            case DELIVERED -> log.debug("Forwarded ledger write for {} to {}", reference, owner);
+            case FAILED -> log.error("Owner {} did not record {}; left to the webhook or sync", owner, reference);
+            case UNREACHABLE -> {
+                log.warn("Owner {} unreachable, recording {} locally", owner, reference);
+                recordLocally(data);
+            }
+        }
+    }
+    
+    /**
+     * Record a transaction state on this node, one write per reference at a time
+     *
+     * @return true if this changed the recorded status of the transaction
+     */
+    public boolean recordLocally(TransactionVerificationData data) {
+        if (data == null || data.getReference() == null) {
+            return false;
+        }
+        return referenceLocks.withLock(data.getReference(), () -> transactionLedger.record(data));
+    }
+}
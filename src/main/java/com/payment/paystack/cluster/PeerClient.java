@@ -0,0 +1,94 @@
+package com.payment.paystack.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Locale;
+
+/**
+ * Node-to-node calls.
+ *
+ * Once a peer has answered, whatever the status, it may already have done
+ * the work, so the caller must not do it again. Only a peer that could not
+ * be reached at all (connection refused, unknown host, connect timeout)
+ * lets the caller take the work over.
+ */
+@Slf4j
+@Component
+public class PeerClient {
+    
+    public static final String FORWARDED_BY_HEADER = "X-Paystack-Forwarded-By";
+    public static final String SIGNATURE_HEADER = "x-paystack-signature";
+    
+    public enum Delivery {
+        DELIVERED,   // the peer accepted it
+        FAILED,      // the peer answered with an error, or may have received it
+        UNREACHABLE  // the request never reached the peer
+    }
+    
+    private final ClusterMembership clusterMembership;
+    private final RestTemplate clusterRestTemplate;
+    
+    public PeerClient(ClusterMembership clusterMembership, RestTemplate clusterRestTemplate) {
+        this.clusterMembership = clusterMembership;
+        this.clusterRestTemplate = clusterRestTemplate;
+    }
+    
+    /**
+     * Post a signed JSON body to a peer, marked as forwarded by this node
+     */
+    public Delivery post(String peer, String path, byte[] body, String signature) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(SIGNATURE_HEADER, signature);
+        headers.set(FORWARDED_BY_HEADER, clusterMembership.getSelf());
+        
+        try {
+            ResponseEntity<String> response = clusterRestTemplate.postForEntity(
+                    peer + path, new HttpEntity<>(body, headers), String.class);
+            return response.getStatusCode().is2xxSuccessful() ? Delivery.DELIVERED : Delivery.FAILED;
+        } catch (RestClientResponseException e) {
+            log.error("{} answered {} to {}", peer, e.getStatusCode(), path);
+            return Delivery.FAILED;
+        } catch (RestClientException e) {
+            if (isUnreachable(e)) {
+                log.warn("{} unreachable for {}: {}", peer, path, e.getMessage());
+                return Delivery.UNREACHABLE;
+            }
+            log.error("No answer from {} to {}: {}", peer, path, e.getMessage());
+            return Delivery.FAILED;
+        }
+    }
+    
+    /**
+     * Check if a call failed before the request could reach the peer. A read
+     * timeout does not count: the peer may still be working on it.
+     */
+    static boolean isUnreachable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                    || cause instanceof UnknownHostException
+                    || cause instanceof NoRouteToHostException
+                    || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+            if (cause instanceof SocketTimeoutException && cause.getMessage() != null
+                    && cause.getMessage().toLowerCase(Locale.ROOT).contains("connect")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.payment.paystack.cluster;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks so that work on the same reference never runs
+ * concurrently on this node
+ */
+@Component
+public class ReferenceLocks {
+    
+    private static final int STRIPES = 256;
+    
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    
+    public ReferenceLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+    
+    public <T> T withLock(String key, Supplier<T> work) {
+        ReentrantLock lock = locks[Math.floorMod(key.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
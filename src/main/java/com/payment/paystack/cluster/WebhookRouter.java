@@ -0,0 +1,74 @@
+package com.payment.paystack.cluster;
+
+import com.payment.paystack.dto.WebhookEvent;
+import com.payment.paystack.service.WebhookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sends each webhook to the node that owns its reference.
+ *
+ * Events owned by this node, or already forwarded once, are processed here
+ * under a per-reference lock so the same transaction is never processed
+ * concurrently. Only if the owner cannot be reached is the event claimed
+ * locally; once the owner has answered, a failure is left to Paystack's
+ * redelivery rather than processed twice.
+ */
+@Slf4j
+@Component
+public class WebhookRouter {
+    
+    public static final String FORWARDED_BY_HEADER = PeerClient.FORWARDED_BY_HEADER;
+    private static final String WEBHOOK_PATH = "/api/paystack/webhook";
+    
+    private final ClusterMembership clusterMembership;
+    private final WebhookService webhookService;
+    private final PeerClient peerClient;
+    private final ReferenceLocks referenceLocks;
+    
+    public WebhookRouter(ClusterMembership clusterMembership,
+                         WebhookService webhookService,
+                         PeerClient peerClient,
+                         ReferenceLocks referenceLocks) {
+        this.clusterMembership = clusterMembership;
+        this.webhookService = webhookService;
+        this.peerClient = peerClient;
+        this.referenceLocks = referenceLocks;
+    }
+    
+    /**
+     * Process a verified webhook here or on its owner node
+     *
+     * @param event       the parsed payload
+     * @param forwardedBy the node that forwarded this event, or null if it
+     *                    came from Paystack
+     * @return false if the owner answered but did not process the event, so
+     *         Paystack should deliver it again
+     */
+    public boolean route(WebhookEvent event, String payload, String signature, String forwardedBy) {
+        String key = WebhookService.partitionKey(event);
+        String owner = clusterMembership.ownerOf(key);
+        
+        if (forwardedBy == null && owner != null && !clusterMembership.isSelf(owner)) {
+            switch (peerClient.post(owner, WEBHOOK_PATH, payload.getBytes(StandardCharsets.UTF_8), signature)) {
+                case DELIVERED -> {
+                    log.debug("Forwarded webhook for {} to {}", key, owner);
+                    return true;
+                }
+                case FAILED -> {
+                    log.error("Owner {} did not process webhook for {}", owner, key);
+                    return false;
+                }
+                case UNREACHABLE -> log.warn("Owner {} unreachable, processing webhook for {} locally", owner, key);
+            }
+        }
+        
+        referenceLocks.withLock(key, () -> {
+            webhookService.process(event);
+            return null;
+        });
+        return true;
+    }
+}
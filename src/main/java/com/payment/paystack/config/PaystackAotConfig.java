@@ -0,0 +1,54 @@
+package com.payment.paystack.config;
+
+import com.payment.paystack.dto.BatchVerifyResult;
+import com.payment.paystack.dto.ChargeAuthorizationRequest;
+import com.payment.paystack.dto.CreateRecipientRequest;
+import com.payment.paystack.dto.CreateRecipientResponse;
+import com.payment.paystack.dto.InitializeTransactionRequest;
+import com.payment.paystack.dto.InitializeTransactionResponse;
+import com.payment.paystack.dto.ListMeta;
+import com.payment.paystack.dto.TransactionListResponse;
+import com.payment.paystack.dto.TransferListResponse;
+import com.payment.paystack.dto.TransferRequest;
+import com.payment.paystack.dto.TransferResponse;
+import com.payment.paystack.dto.VerifyTransactionResponse;
+import com.payment.paystack.dto.WebhookEvent;
+import com.payment.paystack.entity.Subscription;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import com.payment.paystack.event.TransferFinalizedEvent;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reflection hints for AOT processing and native images.
+ *
+ * Controllers return most DTOs inside Map bodies and the service exchanges
+ * them through RestTemplate, so Spring cannot infer them on its own. Binding
+ * hints cover the Lombok-generated accessors, constructors and nested types
+ * Jackson needs.
+ */
+@Configuration(proxyBeanMethods = false)
+@RegisterReflectionForBinding({
+        BatchVerifyResult.class,
+        ChargeAuthorizationRequest.class,
+        CreateRecipientRequest.class,
+        CreateRecipientResponse.class,
+        InitializeTransactionRequest.class,
+        InitializeTransactionResponse.class,
+        ListMeta.class,
+        TransactionListResponse.class,
+        TransferListResponse.class,
+        TransferRequest.class,
+        TransferResponse.class,
+        VerifyTransactionResponse.class,
+        WebhookEvent.class,
+        Subscription.class, // subscription responses
+        TransactionFinalizedEvent.class, // ledger events sent to other members
+        TransferFinalizedEvent.class,
+        TransactionRecord.class,
+        TransferRecord.class
+})
+public class PaystackAotConfig {
+}
@@ -1,11 +1,16 @@
 package com.payment.paystack.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class PaystackConfig {
@@ -13,8 +18,42 @@ public class PaystackConfig {
     @Bean
     public RestTemplate paystackRestTemplate(RestTemplateBuilder builder) {
         return builder
-            .setConnectTimeout(Duration.ofSeconds(10))
-            .setReadTimeout(Duration.ofSeconds(30))
+            .connectTimeout(Duration.ofSeconds(10))
+            .readTimeout(Duration.ofSeconds(30))
             .build();
     }
+    
+    /**
+     * Client for node-to-node calls, with short timeouts so an unreachable
+     * peer is detected quickly
+     */
+    @Bean
+    public RestTemplate clusterRestTemplate(RestTemplateBuilder builder, PaystackProperties paystackProperties) {
+        Duration timeout = paystackProperties.getCluster().getForwardTimeout();
+        return builder
+            .connectTimeout(timeout)
+            .readTimeout(timeout)
+            .build();
+    }
+    
+    /**
+     * Scheduler for the @Scheduled jobs. Spring's default has a single
+     * thread, so a long billing load or sync would hold back the billing
+     * tick, the journal compaction and the status stream heartbeats; each
+     * job gets a thread unless spring.task.scheduling.pool.size says otherwise.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                 @Value("${spring.task.scheduling.pool.size:6}") int poolSize) {
+        return builder.poolSize(poolSize).build();
+    }
+    
+    /**
+     * Virtual-thread executor for fanning out verify calls. Concurrency is
+     * bounded by the callers, not by the executor.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService paystackVerifyExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("paystack-verify-", 0).factory());
+    }
 }
@@ -0,0 +1,78 @@
+package com.payment.paystack.config;
+
+import com.payment.paystack.exception.PaystackException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current configuration snapshot and swaps it atomically on
+ * reload. Requests in flight keep the snapshot they started with.
+ */
+@Slf4j
+@Component
+public class PaystackConfigHolder {
+    
+    private final PaystackProperties paystackProperties;
+    private final AtomicReference<PaystackSnapshot> current = new AtomicReference<>();
+    
+    public PaystackConfigHolder(PaystackProperties paystackProperties) {
+        this.paystackProperties = paystackProperties;
+        this.current.set(PaystackSnapshot.of(paystackProperties, null));
+    }
+    
+    public PaystackSnapshot current() {
+        return current.get();
+    }
+    
+    /**
+     * Apply changed keys or environment and publish a new snapshot. Null
+     * values keep the current setting; a secret key applies to the
+     * environment that is active after the change. Other cluster members
+     * are not changed.
+     */
+    public synchronized PaystackSnapshot reload(String activeEnv, String secretKey, String publicKey,
+                                                String webhookSecret) {
+        if (activeEnv != null && !"test".equalsIgnoreCase(activeEnv) && !"production".equalsIgnoreCase(activeEnv)) {
+            throw new PaystackException("activeEnv must be test or production");
+        }
+        String env = activeEnv != null ? activeEnv : paystackProperties.getActiveEnv();
+        PaystackProperties.EnvironmentConfig active = "production".equalsIgnoreCase(env)
+                ? paystackProperties.getProduction()
+                : paystackProperties.getTest();
+        if (active == null) {
+            throw new PaystackException("No Paystack configuration for environment " + env);
+        }
+        
+        paystackProperties.setActiveEnv(env);
+        if (secretKey != null) {
+            active.setSecretKey(secretKey);
+        }
+        if (publicKey != null) {
+            active.setPublicKey(publicKey);
+        }
+        if (webhookSecret != null) {
+            paystackProperties.setWebhookSecret(webhookSecret);
+        }
+        
+        PaystackSnapshot snapshot = PaystackSnapshot.of(paystackProperties, current.get());
+        current.set(snapshot);
+        log.info("Paystack configuration reloaded: version {}, {} environment",
+                snapshot.getVersion(), snapshot.getEnvironment());
+        return snapshot;
+    }
+    
+    /**
+     * Constant-time check of the admin token; reload is disabled when no
+     * token is configured
+     */
+    public boolean isAdmin(String token) {
+        String expected = paystackProperties.getAdminToken();
+        return expected != null && !expected.isEmpty() && token != null
+                && MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                        token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,6 +5,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "paystack")
@@ -15,6 +19,19 @@ public class PaystackProperties {
     private String activeEnv;
     private String webhookSecret;
     private String callbackUrl;
+    private String adminToken; // required by the config reload endpoint
+    private Duration keyRotationGrace = Duration.ofHours(24); // previous webhook secret still accepted
+    private LedgerConfig ledger = new LedgerConfig();
+    private BatchConfig batch = new BatchConfig();
+    private SyncConfig sync = new SyncConfig();
+    private StatsConfig stats = new StatsConfig();
+    private StatusStreamConfig statusStream = new StatusStreamConfig();
+    private HedgeConfig hedge = new HedgeConfig();
+    private ClusterConfig cluster = new ClusterConfig();
+    private BillingConfig billing = new BillingConfig();
+    private JournalConfig journal = new JournalConfig();
+    private ErrorsConfig errors = new ErrorsConfig();
+    private DeadlineConfig deadline = new DeadlineConfig();
     
     @Data
     public static class EnvironmentConfig {
@@ -23,6 +40,95 @@ public class PaystackProperties {
         private String baseUrl;
     }
     
+    @Data
+    public static class LedgerConfig {
+        private int cacheSize = 10_000; // final states kept in memory
+    }
+    
+    @Data
+    public static class BatchConfig {
+        private int maxReferences = 500;
+        private int concurrency = 16; // parallel verify calls per batch
+        private Duration deadline = Duration.ofSeconds(10);
+    }
+    
+    @Data
+    public static class SyncConfig {
+        private boolean enabled = false; // scheduled sync; manual sync is always available
+        private Duration interval = Duration.ofMinutes(5);
+        private int perPage = 100;
+        private Duration lookback = Duration.ofHours(24); // re-read behind the cursor for late status changes
+    }
+    
+    @Data
+    public static class StatsConfig {
+        private Duration hourlyRetention = Duration.ofHours(48);
+        private Duration pruneInterval = Duration.ofMinutes(10); // how often expired hourly buckets are dropped
+    }
+    
+    @Data
+    public static class StatusStreamConfig {
+        private Duration timeout = Duration.ofMinutes(5);
+        private int maxSubscriptions = 7_000; // each holds a connection; stay under server.tomcat.max-connections (8192)
+    }
+    
+    @Data
+    public static class HedgeConfig {
+        private boolean enabled = false;
+        private double percentile = 95.0; // hedge once the first attempt is slower than this
+        private Duration minDelay = Duration.ofMillis(50);
+        private Duration initialDelay = Duration.ofMillis(500); // until enough latencies are sampled
+        private double budgetPercent = 5.0; // hedges allowed as a share of requests
+        private int sampleWindow = 1024;
+    }
+    
+    @Data
+    public static class ClusterConfig {
+        private String self; // this node's base URL, e.g. http://10.0.0.5:8080
+        private List<String> members = new ArrayList<>(); // empty means single node
+        private int virtualNodes = 128;
+        private Duration forwardTimeout = Duration.ofSeconds(2);
+    }
+    
+    @Data
+    public static class BillingConfig {
+        private boolean enabled = false;
+        private Duration tick = Duration.ofSeconds(1); // timing wheel resolution
+        private int wheelSize = 4096; // buckets; one lap covers wheelSize * tick
+        private Duration horizon = Duration.ofMinutes(30); // how far ahead due subscriptions are loaded
+        private Duration loadInterval = Duration.ofMinutes(5);
+        private int partitions = 16; // subscriptions charged in parallel, one partition per thread
+        private int batchSize = 500; // subscriptions loaded per query
+        private double rateLimit = 20.0; // charge calls per second, shared by all partitions: 72k per hour
+        private int maxRetries = 3; // per charge, on 5xx, 429 and network errors
+        private Duration retryBackoff = Duration.ofSeconds(1); // doubled per retry
+        private Duration transientRetryDelay = Duration.ofMinutes(15); // when all retries fail
+        private List<Duration> dunningSchedule = new ArrayList<>(List.of(
+                Duration.ofDays(1), Duration.ofDays(3), Duration.ofDays(7))); // after declines, then cancel
+    }
+    
+    @Data
+    public static class JournalConfig {
+        private boolean enabled = false;
+        private String directory = "journal";
+        private int segmentSize = 64 * 1024 * 1024; // bytes per segment file
+        private Duration retention = Duration.ofDays(400); // sealed segments older than this are deleted
+        private Duration webhookDurabilityTimeout = Duration.ofSeconds(2); // before a webhook is processed
+    }
+    
+    @Data
+    public static class ErrorsConfig {
+        private Duration logInterval = Duration.ofSeconds(10); // repeats of the same error are counted, not logged
+    }
+    
+    @Data
+    public static class DeadlineConfig {
+        private Duration defaultTimeout; // budget for requests without a deadline header; none if unset
+        private Duration maxTimeout = Duration.ofSeconds(30); // caps budgets asked for by callers
+    }
+    
+    // Resolved once per (re)load into PaystackSnapshot; read that at request time
+    
     public EnvironmentConfig getActiveConfig() {
         return "production".equalsIgnoreCase(activeEnv) ? production : test;
     }
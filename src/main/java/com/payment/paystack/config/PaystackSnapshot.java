@@ -0,0 +1,203 @@
+package com.payment.paystack.config;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Immutable, fully resolved view of the Paystack configuration.
+ *
+ * Everything a request needs is computed once per (re)load: the active
+ * environment, its base URL, read-only auth headers and initialised HMAC
+ * keys. A request reads the snapshot once and uses it throughout, so a
+ * reload never mixes old and new values within one call.
+ */
+@Getter
+public final class PaystackSnapshot {
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA512";
+    
+    private final long version;
+    private final Instant loadedAt;
+    private final String environment;
+    private final boolean production;
+    private final String baseUrl;
+    private final String callbackUrl;
+    private final HttpHeaders headers;
+    @Getter(AccessLevel.NONE)
+    private final WebhookKey webhookKey;
+    @Getter(AccessLevel.NONE)
+    private final WebhookKey previousWebhookKey; // accepted until it expires, during rotation
+    
+    private PaystackSnapshot(long version, Instant loadedAt, String environment, boolean production,
+                             String baseUrl, String callbackUrl, HttpHeaders headers,
+                             WebhookKey webhookKey, WebhookKey previousWebhookKey) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.environment = environment;
+        this.production = production;
+        this.baseUrl = baseUrl;
+        this.callbackUrl = callbackUrl;
+        this.headers = headers;
+        this.webhookKey = webhookKey;
+        this.previousWebhookKey = previousWebhookKey;
+    }
+    
+    /**
+     * Resolve the properties. If the webhook secret changed since the
+     * previous snapshot, the old key stays valid for the rotation grace.
+     */
+    static PaystackSnapshot of(PaystackProperties properties, PaystackSnapshot previous) {
+        Instant now = Instant.now();
+        boolean production = properties.isProduction();
+        PaystackProperties.EnvironmentConfig active = properties.getActiveConfig();
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (active != null && active.getSecretKey() != null) {
+            headers.setBearerAuth(active.getSecretKey());
+        }
+        
+        WebhookKey webhookKey = WebhookKey.of(properties.getWebhookSecret(), null);
+        WebhookKey previousWebhookKey = null;
+        if (previous != null) {
+            if (previous.webhookKey != null && !previous.webhookKey.sameSecret(webhookKey)) {
+                previousWebhookKey = previous.webhookKey.expiringAt(now.plus(properties.getKeyRotationGrace()));
+            } else if (previous.previousWebhookKey != null && !previous.previousWebhookKey.isExpired(now)) {
+                previousWebhookKey = previous.previousWebhookKey;
+            }
+        }
+        
+        return new PaystackSnapshot(
+                previous != null ? previous.version + 1 : 1,
+                now,
+                production ? "production" : "test",
+                production,
+                active != null ? active.getBaseUrl() : null,
+                properties.getCallbackUrl(),
+                HttpHeaders.readOnlyHttpHeaders(headers),
+                webhookKey,
+                previousWebhookKey);
+    }
+    
+    /**
+     * Check an x-paystack-signature header against the current webhook
+     * secret and, during rotation, the previous one
+     */
+    public boolean verifySignature(byte[] payload, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        byte[] expected;
+        try {
+            expected = HexFormat.of().parseHex(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        
+        if (webhookKey != null && MessageDigest.isEqual(webhookKey.sign(payload), expected)) {
+            return true;
+        }
+        return previousWebhookKey != null
+                && !previousWebhookKey.isExpired(Instant.now())
+                && MessageDigest.isEqual(previousWebhookKey.sign(payload), expected);
+    }
+    
+    /**
+     * Sign a payload the way Paystack signs webhooks, with the current
+     * webhook secret; null if none is configured
+     */
+    public String sign(byte[] payload) {
+        return webhookKey != null ? HexFormat.of().formatHex(webhookKey.sign(payload)) : null;
+    }
+    
+    /**
+     * Fingerprints only; never the keys themselves
+     */
+    public List<String> getWebhookKeyFingerprints() {
+        List<String> fingerprints = new ArrayList<>();
+        if (webhookKey != null) {
+            fingerprints.add(webhookKey.fingerprint());
+        }
+        if (previousWebhookKey != null) {
+            fingerprints.add(previousWebhookKey.fingerprint() + " (expires " + previousWebhookKey.expiresAt() + ")");
+        }
+        return fingerprints;
+    }
+    
+    /**
+     * HMAC key with an initialised Mac that is cloned for each use, since a
+     * Mac instance is not thread-safe
+     */
+    public record WebhookKey(SecretKeySpec key, Mac prototype, Instant expiresAt) {
+        
+        static WebhookKey of(String secret, Instant expiresAt) {
+            if (secret == null || secret.isEmpty()) {
+                return null;
+            }
+            try {
+                SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+                Mac prototype = Mac.getInstance(HMAC_ALGORITHM);
+                prototype.init(key);
+                return new WebhookKey(key, prototype, expiresAt);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not initialise webhook HMAC key", e);
+            }
+        }
+        
+        byte[] sign(byte[] payload) {
+            return newMac().doFinal(payload);
+        }
+        
+        private Mac newMac() {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                try {
+                    Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                    mac.init(key);
+                    return mac;
+                } catch (GeneralSecurityException ex) {
+                    throw new IllegalStateException("Could not initialise webhook HMAC key", ex);
+                }
+            }
+        }
+        
+        boolean sameSecret(WebhookKey other) {
+            return other != null && MessageDigest.isEqual(key.getEncoded(), other.key.getEncoded());
+        }
+        
+        WebhookKey expiringAt(Instant expiresAt) {
+            return new WebhookKey(key, prototype, expiresAt);
+        }
+        
+        boolean isExpired(Instant now) {
+            return expiresAt != null && !now.isBefore(expiresAt);
+        }
+        
+        String fingerprint() {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+                return HexFormat.of().formatHex(digest, 0, 4);
+            } catch (GeneralSecurityException e) {
+                return "unknown";
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return "WebhookKey[" + fingerprint() + "]";
+        }
+    }
+}
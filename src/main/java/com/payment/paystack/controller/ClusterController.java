@@ -0,0 +1,158 @@
+package com.payment.paystack.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.cluster.ClusterMembership;
+import com.payment.paystack.cluster.LedgerBroadcaster;
+import com.payment.paystack.cluster.LedgerRouter;
+import com.payment.paystack.cluster.PeerClient;
+import com.payment.paystack.config.PaystackConfigHolder;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/paystack/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+    
+    private final ClusterMembership clusterMembership;
+    private final LedgerRouter ledgerRouter;
+    private final LedgerBroadcaster ledgerBroadcaster;
+    private final PaystackConfigHolder paystackConfigHolder;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Current members, and optionally the owner of a reference
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getCluster(@RequestParam(required = false) String reference) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("self", clusterMembership.getSelf());
+        result.put("members", clusterMembership.getMembers());
+        if (reference != null) {
+            result.put("owner", clusterMembership.ownerOf(reference));
+        }
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Replace the member list, e.g. when a node joins or leaves. Changes
+     * only this node; call it on every member.
+     */
+    @PutMapping("/members")
+    public ResponseEntity<Map<String, Object>> updateMembers(
+            @RequestHeader(value = ConfigController.ADMIN_TOKEN_HEADER, required = false) String adminToken,
+            @RequestBody Map<String, Object> request) {
+        
+        if (!paystackConfigHolder.isAdmin(adminToken)) {
+            log.warn("Rejected cluster membership update with missing or invalid admin token");
+            return error(HttpStatus.FORBIDDEN, "Invalid admin token");
+        }
+        
+        if (!(request.get("members") instanceof List<?> members)) {
+            return error(HttpStatus.BAD_REQUEST, "members must be a list of node URLs");
+        }
+        
+        clusterMembership.updateMembers(members.stream().map(String::valueOf).toList());
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", "Cluster membership updated");
+        result.put("members", clusterMembership.getMembers());
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Ledger write forwarded by the node that verified or charged a
+     * transaction this node owns. Signed with the shared webhook secret.
+     */
+    @PostMapping("/ledger/transactions")
+    public ResponseEntity<Map<String, Object>> recordTransaction(
+            @RequestBody String payload,
+            @RequestHeader(value = PeerClient.SIGNATURE_HEADER, required = false) String signature) {
+        
+        if (!paystackConfigHolder.current().verifySignature(payload.getBytes(StandardCharsets.UTF_8), signature)) {
+            log.warn("Invalid signature on forwarded ledger write");
+            return error(HttpStatus.UNAUTHORIZED, "Invalid signature");
+        }
+        
+        try {
+            TransactionVerificationData data = objectMapper.readValue(payload, TransactionVerificationData.class);
+            boolean changed = ledgerRouter.recordLocally(data);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", changed ? "Recorded" : "Already recorded");
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            log.error("Error recording forwarded ledger write: {}", e.getMessage(), e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to record transaction: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Final transaction state recorded by another member, for this node's
+     * status streams, stats and cache. Signed with the shared webhook secret.
+     */
+    @PostMapping("/ledger/events/transactions")
+    public ResponseEntity<Map<String, Object>> transactionFinalized(
+            @RequestBody String payload,
+            @RequestHeader(value = PeerClient.SIGNATURE_HEADER, required = false) String signature) {
+        return receiveEvent(payload, signature, ledgerBroadcaster::receiveTransaction);
+    }
+    
+    /**
+     * Final transfer state recorded by another member
+     */
+    @PostMapping("/ledger/events/transfers")
+    public ResponseEntity<Map<String, Object>> transferFinalized(
+            @RequestBody String payload,
+            @RequestHeader(value = PeerClient.SIGNATURE_HEADER, required = false) String signature) {
+        return receiveEvent(payload, signature, ledgerBroadcaster::receiveTransfer);
+    }
+    
+    private ResponseEntity<Map<String, Object>> receiveEvent(String payload, String signature,
+                                                             EventReceiver receiver) {
+        if (!paystackConfigHolder.current().verifySignature(payload.getBytes(StandardCharsets.UTF_8), signature)) {
+            log.warn("Invalid signature on forwarded ledger event");
+            return error(HttpStatus.UNAUTHORIZED, "Invalid signature");
+        }
+        
+        try {
+            receiver.receive(payload);
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "Received");
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            log.error("Error receiving ledger event: {}", e.getMessage(), e);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to receive event: " + e.getMessage());
+        }
+    }
+    
+    private interface EventReceiver {
+        void receive(String payload) throws Exception;
+    }
+    
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
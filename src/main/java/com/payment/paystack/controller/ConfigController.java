@@ -0,0 +1,90 @@
+package com.payment.paystack.controller;
+
+import com.payment.paystack.config.PaystackConfigHolder;
+import com.payment.paystack.config.PaystackSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/paystack/config")
+@RequiredArgsConstructor
+public class ConfigController {
+    
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+    
+    private final PaystackConfigHolder paystackConfigHolder;
+    
+    /**
+     * Current configuration snapshot, without secrets
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getConfig() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", describe(paystackConfigHolder.current()));
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Switch environment or rotate keys without a restart. Requests already
+     * running finish with the previous snapshot. Changes only this node;
+     * call it on every cluster member.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String adminToken,
+            @RequestBody(required = false) Map<String, String> request) {
+        
+        if (!paystackConfigHolder.isAdmin(adminToken)) {
+            log.warn("Rejected configuration reload with missing or invalid admin token");
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Invalid admin token");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+        }
+        
+        try {
+            Map<String, String> changes = request != null ? request : Map.of();
+            PaystackSnapshot snapshot = paystackConfigHolder.reload(
+                    changes.get("activeEnv"),
+                    changes.get("secretKey"),
+                    changes.get("publicKey"),
+                    changes.get("webhookSecret"));
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "Configuration reloaded successfully");
+            result.put("data", describe(snapshot));
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            log.error("Error reloading configuration: {}", e.getMessage(), e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to reload configuration: " + e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+    
+    private Map<String, Object> describe(PaystackSnapshot snapshot) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("version", snapshot.getVersion());
+        data.put("loadedAt", snapshot.getLoadedAt());
+        data.put("environment", snapshot.getEnvironment());
+        data.put("is_production", snapshot.isProduction());
+        data.put("baseUrl", snapshot.getBaseUrl());
+        data.put("webhookKeys", snapshot.getWebhookKeyFingerprints());
+        return data;
+    }
+}
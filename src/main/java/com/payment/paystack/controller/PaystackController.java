@@ -1,17 +1,39 @@
 package com.payment.paystack.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.cluster.WebhookRouter;
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.deadline.Deadline;
+import com.payment.paystack.deadline.DeadlineContext;
+import com.payment.paystack.dto.BatchVerifyResult;
 import com.payment.paystack.dto.CreateRecipientResponse;
 import com.payment.paystack.dto.InitializeTransactionResponse;
 import com.payment.paystack.dto.TransferResponse;
 import com.payment.paystack.dto.VerifyTransactionResponse;
+import com.payment.paystack.dto.WebhookEvent;
+import com.payment.paystack.exception.PaystackException;
+import com.payment.paystack.exception.UpstreamException;
+import com.payment.paystack.journal.Journal;
+import com.payment.paystack.journal.RecordType;
+import com.payment.paystack.service.BatchVerificationService;
+import com.payment.paystack.service.PaymentStatusNotifier;
 import com.payment.paystack.service.PaystackService;
+import com.payment.paystack.service.WebhookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -21,6 +43,13 @@ import java.util.Map;
 public class PaystackController {
     
     private final PaystackService paystackService;
+    private final BatchVerificationService batchVerificationService;
+    private final WebhookRouter webhookRouter;
+    private final PaymentStatusNotifier paymentStatusNotifier;
+    private final ObjectMapper objectMapper;
+    private final PaystackProperties paystackProperties;
+    private final WebhookService webhookService;
+    private final Journal journal;
     
     /**
      * Initialize a payment transaction (STK Push equivalent)
@@ -50,13 +79,7 @@ public class PaystackController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
-            log.error("Error initializing payment: {}", e.getMessage(), e);
-            
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Failed to initialize payment: " + e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return failure("Failed to initialize payment", e);
         }
     }
     
@@ -78,14 +101,54 @@ public class PaystackController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
-            log.error("Error verifying payment: {}", e.getMessage(), e);
-            
+            return failure("Failed to verify payment", e);
+        }
+    }
+    
+    /**
+     * Verify many payment transactions at once. Results are streamed as
+     * newline-delimited JSON in completion order.
+     */
+    @PostMapping("/verify/batch")
+    public ResponseEntity<?> verifyPaymentBatch(@RequestBody Map<String, Object> request) {
+        
+        Object value = request.get("references");
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
-            error.put("message", "Failed to verify payment: " + e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            error.put("message", "references must be a non-empty list");
+            return ResponseEntity.badRequest().body(error);
         }
+        
+        int maxReferences = paystackProperties.getBatch().getMaxReferences();
+        if (list.size() > maxReferences) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "At most " + maxReferences + " references are allowed per batch");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        List<String> references = list.stream().map(String::valueOf).toList();
+        // The body is written on another thread, so capture the deadline here
+        Deadline deadline = DeadlineContext.current();
+        StreamingResponseBody body = out -> batchVerificationService.verify(
+                references, deadline, result -> writeLine(out, result));
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Stream the final status of a payment as a server-sent event instead
+     * of polling /verify. The stream closes once the status is sent or the
+     * subscription times out.
+     */
+    @GetMapping(value = "/status/{reference}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPaymentStatus(@PathVariable String reference) {
+        return paymentStatusNotifier.subscribe(reference)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
     }
     
     /**
@@ -115,13 +178,7 @@ public class PaystackController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
-            log.error("Error creating recipient: {}", e.getMessage(), e);
-            
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Failed to create recipient: " + e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return failure("Failed to create recipient", e);
         }
     }
     
@@ -151,13 +208,7 @@ public class PaystackController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
-            log.error("Error initiating transfer: {}", e.getMessage(), e);
-            
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Failed to initiate transfer: " + e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return failure("Failed to initiate transfer", e);
         }
     }
     
@@ -167,21 +218,40 @@ public class PaystackController {
     @PostMapping("/webhook")
     public ResponseEntity<String> handleWebhook(
             @RequestBody String payload,
-            @RequestHeader("x-paystack-signature") String signature) {
+            @RequestHeader("x-paystack-signature") String signature,
+            @RequestHeader(value = WebhookRouter.FORWARDED_BY_HEADER, required = false) String forwardedBy) {
         
         try {
-            if (!paystackService.verifyWebhookSignature(payload, signature)) {
+            byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+            if (!paystackService.verifyWebhookSignature(body, signature)) {
                 log.warn("Invalid webhook signature received");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid signature");
             }
             
-            // Parse the webhook event
-            // You can use Jackson ObjectMapper to parse the payload
-            log.info("Webhook received in {} environment: {}", 
-                    paystackService.getCurrentEnvironment(), payload);
+            WebhookEvent event = webhookService.parse(payload);
+            String reference = WebhookService.partitionKey(event);
+            log.info("Webhook {} for {} received in {} environment",
+                    event.getEvent(), reference, paystackService.getCurrentEnvironment());
+            
+            // Journal on the node Paystack delivered to, and process only once
+            // the record is on disk; if it is not, Paystack delivers it again
+            if (forwardedBy == null && journal.isEnabled()) {
+                long journalOffset = journal.append(RecordType.WEBHOOK, reference,
+                        paystackService.redactForJournal(payload));
+                if (!journal.awaitDurable(journalOffset, paystackProperties.getJournal().getWebhookDurabilityTimeout())) {
+                    log.error("Webhook for {} not journaled in time, left for redelivery", reference);
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .body("Webhook not journaled");
+                }
+            }
             
-            // Process the webhook based on event type
-            // Example events: charge.success, transfer.success, transfer.failed
+            // Records final states from events such as charge.success,
+            // transfer.success, transfer.failed and transfer.reversed, on
+            // the node that owns the reference
+            if (!webhookRouter.route(event, payload, signature, forwardedBy)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Webhook not processed by its owner");
+            }
             
             return ResponseEntity.ok("Webhook processed successfully");
             
@@ -220,13 +290,7 @@ public class PaystackController {
             return ResponseEntity.ok(result);
             
         } catch (Exception e) {
-            log.error("Error in callback: {}", e.getMessage(), e);
-            
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Failed to process callback: " + e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return failure("Failed to process callback", e);
         }
     }
     
@@ -241,4 +305,33 @@ public class PaystackController {
         
         return ResponseEntity.ok(result);
     }
+    
+    /**
+     * Error response for a failed call. Paystack failures were already
+     * recorded in the rate-limited error log where they were raised.
+     */
+    private ResponseEntity<Map<String, Object>> failure(String message, Exception e) {
+        if (e instanceof UpstreamException upstream) {
+            return upstream.getType().toResponse();
+        }
+        if (!(e instanceof PaystackException)) {
+            log.error("{}: {}", message, e.getMessage(), e);
+        }
+        
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message + ": " + e.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+    
+    private void writeLine(OutputStream out, BatchVerifyResult result) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.payment.paystack.controller;
+
+import com.payment.paystack.deadline.DeadlineStats;
+import com.payment.paystack.exception.ErrorLog;
+import com.payment.paystack.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/paystack/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    
+    private final StatsService statsService;
+    private final ErrorLog errorLog;
+    private final DeadlineStats deadlineStats;
+    
+    /**
+     * Revenue and payout totals by currency, channel, status and hour
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", statsService.getStats());
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Failed Paystack calls since startup, by operation and error type
+     */
+    @GetMapping("/errors")
+    public ResponseEntity<Map<String, Object>> getErrorCounts() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", errorLog.getCounts());
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Requests that carried a deadline, and how many ran out of time
+     */
+    @GetMapping("/deadlines")
+    public ResponseEntity<Map<String, Object>> getDeadlineStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", deadlineStats.getStats());
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Recompute the totals from the local store
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        
+        try {
+            statsService.rebuild();
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "Stats rebuilt successfully");
+            result.put("data", statsService.getStats());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            log.error("Error rebuilding stats: {}", e.getMessage(), e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to rebuild stats: " + e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
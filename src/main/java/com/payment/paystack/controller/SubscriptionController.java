@@ -0,0 +1,107 @@
+package com.payment.paystack.controller;
+
+import com.payment.paystack.billing.RecurringBillingService;
+import com.payment.paystack.billing.SubscriptionService;
+import com.payment.paystack.entity.Subscription;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/paystack/subscriptions")
+@RequiredArgsConstructor
+public class SubscriptionController {
+    
+    private final SubscriptionService subscriptionService;
+    private final RecurringBillingService recurringBillingService;
+    
+    /**
+     * Create a subscription charged every intervalDays on a saved card
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createSubscription(
+            @RequestBody Map<String, Object> request) {
+        
+        try {
+            String email = (String) request.get("email");
+            BigDecimal amount = new BigDecimal(request.get("amount").toString());
+            String currency = (String) request.getOrDefault("currency", "NGN");
+            int intervalDays = Integer.parseInt(request.getOrDefault("intervalDays", 30).toString());
+            String authorizationCode = (String) request.get("authorizationCode");
+            Instant firstChargeAt = request.containsKey("firstChargeAt")
+                    ? Instant.parse(request.get("firstChargeAt").toString())
+                    : null;
+            
+            Subscription subscription = subscriptionService.create(
+                    email, amount, currency, intervalDays, authorizationCode, firstChargeAt
+            );
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "Subscription created successfully");
+            result.put("data", subscription);
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            log.error("Error creating subscription: {}", e.getMessage(), e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to create subscription: " + e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * Get a subscription and its billing state
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getSubscription(@PathVariable Long id) {
+        return respond(subscriptionService.find(id), "Subscription found");
+    }
+    
+    /**
+     * Cancel a subscription
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> cancelSubscription(@PathVariable Long id) {
+        return respond(subscriptionService.cancel(id), "Subscription cancelled successfully");
+    }
+    
+    /**
+     * Charge counters of this instance
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getBillingStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("data", recurringBillingService.getStats());
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    private ResponseEntity<Map<String, Object>> respond(Optional<Subscription> subscription, String message) {
+        Map<String, Object> result = new HashMap<>();
+        if (subscription.isEmpty()) {
+            result.put("success", false);
+            result.put("message", "Subscription not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+        
+        result.put("success", true);
+        result.put("message", message);
+        result.put("data", subscription.get());
+        
+        return ResponseEntity.ok(result);
+    }
+}
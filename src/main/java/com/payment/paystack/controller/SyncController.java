@@ -0,0 +1,104 @@
+package com.payment.paystack.controller;
+
+import com.payment.paystack.service.ExportService;
+import com.payment.paystack.service.PaystackSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/paystack")
+@RequiredArgsConstructor
+public class SyncController {
+    
+    private final PaystackSyncService paystackSyncService;
+    private final ExportService exportService;
+    
+    /**
+     * Pull new transactions and transfers from Paystack into the local store
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<Map<String, Object>> sync() {
+        
+        try {
+            Optional<Map<String, Integer>> stored = paystackSyncService.syncAll();
+            
+            Map<String, Object> result = new HashMap<>();
+            if (stored.isEmpty()) {
+                result.put("success", false);
+                result.put("message", "Sync already in progress");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+            }
+            
+            result.put("success", true);
+            result.put("message", "Sync completed");
+            result.put("data", stored.get());
+            
+            return ResponseEntity.ok(result);
+            
+        } catch (Exception e) {
+            log.error("Error syncing from Paystack: {}", e.getMessage(), e);
+            
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to sync: " + e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * Export stored transactions as CSV or NDJSON
+     */
+    @GetMapping("/export/transactions")
+    public ResponseEntity<?> exportTransactions(@RequestParam(defaultValue = "csv") String format) {
+        
+        Optional<ExportService.Format> exportFormat = ExportService.Format.parse(format);
+        if (exportFormat.isEmpty()) {
+            return unsupportedFormat(format);
+        }
+        StreamingResponseBody body = out -> exportService.exportTransactions(exportFormat.get(), out);
+        return exportResponse("transactions", exportFormat.get(), body);
+    }
+    
+    /**
+     * Export stored transfers as CSV or NDJSON
+     */
+    @GetMapping("/export/transfers")
+    public ResponseEntity<?> exportTransfers(@RequestParam(defaultValue = "csv") String format) {
+        
+        Optional<ExportService.Format> exportFormat = ExportService.Format.parse(format);
+        if (exportFormat.isEmpty()) {
+            return unsupportedFormat(format);
+        }
+        StreamingResponseBody body = out -> exportService.exportTransfers(exportFormat.get(), out);
+        return exportResponse("transfers", exportFormat.get(), body);
+    }
+    
+    private ResponseEntity<Map<String, Object>> unsupportedFormat(String format) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", "Unsupported export format: " + format + " (expected csv or ndjson)");
+        return ResponseEntity.badRequest().body(error);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> exportResponse(
+            String name, ExportService.Format format, StreamingResponseBody body) {
+        
+        boolean csv = format == ExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,73 @@
+package com.payment.paystack.deadline;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Point in time by which a request must be answered, on the monotonic
+ * clock so wall-clock adjustments cannot stretch or shrink the budget.
+ */
+public final class Deadline {
+    
+    // Far enough for any real budget, near enough that nanoTime arithmetic cannot overflow
+    private static final Duration LIMIT = Duration.ofDays(365L * 50);
+    
+    private final long nanoTime;
+    
+    private Deadline(long nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+    
+    /**
+     * Timeouts beyond about fifty years either way are clamped
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + toNanos(timeout));
+    }
+    
+    /**
+     * Deadline at a wall-clock instant, e.g. one set by an upstream gateway
+     */
+    public static Deadline at(Instant instant) {
+        return after(Duration.between(Instant.now(), instant));
+    }
+    
+    /**
+     * The earlier of this deadline and now + timeout
+     */
+    public Deadline orAfter(Duration timeout) {
+        long other = System.nanoTime() + toNanos(timeout);
+        return other - nanoTime < 0 ? new Deadline(other) : this;
+    }
+    
+    public long nanoTime() {
+        return nanoTime;
+    }
+    
+    public long remainingNanos() {
+        return nanoTime - System.nanoTime();
+    }
+    
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, remainingNanos()));
+    }
+    
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+    
+    private static long toNanos(Duration timeout) {
+        if (timeout.compareTo(LIMIT) > 0) {
+            return LIMIT.toNanos();
+        }
+        if (timeout.compareTo(LIMIT.negated()) < 0) {
+            return -LIMIT.toNanos();
+        }
+        return timeout.toNanos();
+    }
+    
+    @Override
+    public String toString() {
+        return "Deadline[" + remaining().toMillis() + "ms remaining]";
+    }
+}
@@ -0,0 +1,29 @@
+package com.payment.paystack.deadline;
+
+/**
+ * Deadline of the request being handled on the current thread, set by
+ * {@link DeadlineFilter}. Work handed to other threads must capture it
+ * explicitly.
+ */
+public final class DeadlineContext {
+    
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    
+    private DeadlineContext() {
+    }
+    
+    /**
+     * @return the current deadline, or null if the request has none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+    
+    static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+    
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,111 @@
+package com.payment.paystack.deadline;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.config.PaystackProperties.DeadlineConfig;
+import com.payment.paystack.exception.ErrorType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Gives each request its deadline: an absolute X-Request-Deadline, a
+ * relative X-Request-Timeout, or the configured default, capped at the
+ * configured maximum. Requests that arrive already expired are answered
+ * with 504 before any work is done.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class DeadlineFilter extends OncePerRequestFilter {
+    
+    public static final String DEADLINE_HEADER = "X-Request-Deadline"; // epoch millis or ISO-8601 instant
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout"; // millis, "2s", "500ms" or ISO-8601 duration
+    
+    private final PaystackProperties paystackProperties;
+    private final DeadlineStats deadlineStats;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        
+        Deadline deadline = deadlineOf(request);
+        if (deadline == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        deadlineStats.requestWithDeadline();
+        if (deadline.isExpired()) {
+            deadlineStats.expiredOnArrival();
+            byte[] body = ErrorType.DEADLINE_EXCEEDED.toJsonResponse().getBody();
+            response.setStatus(ErrorType.DEADLINE_EXCEEDED.getStatus().value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+        
+        DeadlineContext.set(deadline);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DeadlineContext.clear();
+        }
+    }
+    
+    private Deadline deadlineOf(HttpServletRequest request) {
+        DeadlineConfig config = paystackProperties.getDeadline();
+        Deadline deadline = null;
+        try {
+            String absolute = request.getHeader(DEADLINE_HEADER);
+            String relative = request.getHeader(TIMEOUT_HEADER);
+            if (absolute != null) {
+                deadline = Deadline.at(parseInstant(absolute.trim()));
+            } else if (relative != null) {
+                deadline = Deadline.after(parseDuration(relative.trim()));
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            log.debug("Ignoring malformed deadline header on {}: {}", request.getRequestURI(), e.getMessage());
+        }
+        
+        if (deadline == null) {
+            return config.getDefaultTimeout() != null ? Deadline.after(config.getDefaultTimeout()) : null;
+        }
+        return deadline.orAfter(config.getMaxTimeout());
+    }
+    
+    private static Instant parseInstant(String value) {
+        return isDigits(value) ? Instant.ofEpochMilli(Long.parseLong(value)) : Instant.parse(value);
+    }
+    
+    private static Duration parseDuration(String value) {
+        if (isDigits(value)) {
+            return Duration.ofMillis(Long.parseLong(value));
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s") && isDigits(value.substring(0, value.length() - 1))) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+    
+    private static boolean isDigits(String value) {
+        return !value.isEmpty() && value.chars().allMatch(Character::isDigit);
+    }
+}
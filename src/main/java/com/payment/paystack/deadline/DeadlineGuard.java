@@ -0,0 +1,86 @@
+package com.payment.paystack.deadline;
+
+import com.payment.paystack.exception.ErrorType;
+import com.payment.paystack.exception.UpstreamException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs outbound calls within the current request's remaining budget.
+ *
+ * The HTTP client's connect and read timeouts are fixed per client, so a
+ * call under a deadline runs on a virtual thread and is abandoned when the
+ * budget runs out; cancelling interrupts the thread, which closes its
+ * socket. Calls without a deadline run directly, bounded only by the
+ * client timeouts.
+ *
+ * Calls that must not be abandoned once sent, such as charges and
+ * transfers, go through {@link #send}: the deadline is only checked
+ * before sending, since a cancelled POST may still have reached Paystack
+ * and the caller would be left without its outcome.
+ */
+@Component
+public class DeadlineGuard {
+    
+    private final ExecutorService paystackVerifyExecutor;
+    private final DeadlineStats deadlineStats;
+    
+    public DeadlineGuard(ExecutorService paystackVerifyExecutor, DeadlineStats deadlineStats) {
+        this.paystackVerifyExecutor = paystackVerifyExecutor;
+        this.deadlineStats = deadlineStats;
+    }
+    
+    /**
+     * Run an idempotent call, abandoning it when the deadline passes
+     */
+    public <T> T call(Callable<T> call) throws Exception {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return call.call();
+        }
+        
+        long remaining = deadline.remainingNanos();
+        checkBeforeCall(remaining);
+        
+        Future<T> future = paystackVerifyExecutor.submit(call);
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            deadlineStats.exceededDuringCall();
+            throw UpstreamException.of(ErrorType.DEADLINE_EXCEEDED);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            future.cancel(true);
+        }
+    }
+    
+    /**
+     * Run a call that is not safe to abandon: reject it if the deadline
+     * has already passed, otherwise let it finish within the client
+     * timeouts
+     */
+    public <T> T send(Callable<T> call) throws Exception {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null) {
+            checkBeforeCall(deadline.remainingNanos());
+        }
+        return call.call();
+    }
+    
+    private void checkBeforeCall(long remaining) {
+        if (remaining <= 0) {
+            deadlineStats.expiredBeforeCall();
+            throw UpstreamException.of(ErrorType.DEADLINE_EXCEEDED);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.payment.paystack.deadline;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deadline outcomes, counted apart from ordinary upstream failures so an
+ * impatient caller is not mistaken for a slow Paystack
+ */
+@Component
+public class DeadlineStats {
+    
+    private final LongAdder requestsWithDeadline = new LongAdder();
+    private final LongAdder expiredOnArrival = new LongAdder();
+    private final LongAdder expiredBeforeCall = new LongAdder();
+    private final LongAdder exceededDuringCall = new LongAdder();
+    
+    void requestWithDeadline() {
+        requestsWithDeadline.increment();
+    }
+    
+    void expiredOnArrival() {
+        expiredOnArrival.increment();
+    }
+    
+    void expiredBeforeCall() {
+        expiredBeforeCall.increment();
+    }
+    
+    void exceededDuringCall() {
+        exceededDuringCall.increment();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests_with_deadline", requestsWithDeadline.sum());
+        stats.put("expired_on_arrival", expiredOnArrival.sum());
+        stats.put("expired_before_call", expiredBeforeCall.sum());
+        stats.put("exceeded_during_call", exceededDuringCall.sum());
+        return stats;
+    }
+}
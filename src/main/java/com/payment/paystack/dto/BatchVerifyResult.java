@@ -0,0 +1,35 @@
+package com.payment.paystack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+
+// Batch Verification Result (one line per reference)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchVerifyResult {
+    private String reference;
+    private String source; // ledger, paystack, error, timeout
+    private TransactionVerificationData data;
+    private String message;
+    
+    public static BatchVerifyResult ledger(String reference, TransactionVerificationData data) {
+        return new BatchVerifyResult(reference, "ledger", data, null);
+    }
+    
+    public static BatchVerifyResult paystack(String reference, TransactionVerificationData data) {
+        return new BatchVerifyResult(reference, "paystack", data, null);
+    }
+    
+    public static BatchVerifyResult error(String reference, String message) {
+        return new BatchVerifyResult(reference, "error", null, message);
+    }
+    
+    public static BatchVerifyResult timeout(String reference) {
+        return new BatchVerifyResult(reference, "timeout", null, "Batch deadline exceeded");
+    }
+}
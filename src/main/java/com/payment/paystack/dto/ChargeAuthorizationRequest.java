@@ -0,0 +1,22 @@
+package com.payment.paystack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+
+// Charge Authorization Request (recurring charge on a saved card)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChargeAuthorizationRequest {
+    private String email;
+    private BigDecimal amount; // in kobo
+    @JsonProperty("authorization_code")
+    private String authorizationCode;
+    private String currency;
+    private String reference;
+}
@@ -0,0 +1,17 @@
+package com.payment.paystack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pagination metadata returned by Paystack list endpoints
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListMeta {
+    private Long total;
+    private Long skipped;
+    private Integer perPage;
+    private Integer page;
+    private Integer pageCount;
+}
@@ -0,0 +1,18 @@
+package com.payment.paystack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import java.util.List;
+
+// List Transactions Response
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionListResponse {
+    private boolean status;
+    private String message;
+    private List<TransactionVerificationData> data;
+    private ListMeta meta;
+}
@@ -0,0 +1,42 @@
+package com.payment.paystack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// List Transfers Response
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferListResponse {
+    private boolean status;
+    private String message;
+    private List<TransferListItem> data;
+    private ListMeta meta;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransferListItem {
+        private Long id;
+        private String reference;
+        private BigDecimal amount;
+        private String currency;
+        private String reason;
+        private String status;
+        @JsonProperty("transfer_code")
+        private String transferCode;
+        private Map<String, Object> recipient; // expanded recipient object
+        @JsonProperty("created_at")
+        @JsonAlias("createdAt")
+        private String createdAt;
+        @JsonProperty("updated_at")
+        @JsonAlias("updatedAt")
+        private String updatedAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.payment.paystack.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.util.Map;
+
+// Reusable card authorization captured from a charge.success event
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "paystack_authorizations", indexes = {
+        @Index(name = "idx_paystack_authorizations_email", columnList = "email")
+})
+public class SavedAuthorization {
+    
+    @Id
+    @Column(length = 100)
+    private String authorizationCode;
+    private String email;
+    private boolean reusable;
+    @Column(length = 100)
+    private String signature; // same card across authorizations
+    @Column(length = 30)
+    private String channel;
+    @Column(length = 30)
+    private String brand;
+    @Column(length = 4)
+    private String last4;
+    @Column(length = 2)
+    private String expMonth;
+    @Column(length = 4)
+    private String expYear;
+    private String bank;
+    private Instant createdAt;
+    
+    /**
+     * Build from the "authorization" object of a charge event
+     */
+    public static SavedAuthorization from(Map<?, ?> authorization, String email) {
+        return SavedAuthorization.builder()
+                .authorizationCode(string(authorization.get("authorization_code")))
+                .email(email)
+                .reusable(Boolean.parseBoolean(string(authorization.get("reusable"))))
+                .signature(string(authorization.get("signature")))
+                .channel(string(authorization.get("channel")))
+                .brand(string(authorization.get("brand")))
+                .last4(string(authorization.get("last4")))
+                .expMonth(string(authorization.get("exp_month")))
+                .expYear(string(authorization.get("exp_year")))
+                .bank(string(authorization.get("bank")))
+                .createdAt(Instant.now())
+                .build();
+    }
+    
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.payment.paystack.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Recurring charge against a saved authorization
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "paystack_subscriptions", indexes = {
+        @Index(name = "idx_paystack_subscriptions_due", columnList = "status, nextChargeAt, id")
+})
+public class Subscription {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+    private String email;
+    @JsonIgnore // card credential, never returned by the API
+    @Column(length = 100)
+    private String authorizationCode;
+    private BigDecimal amount; // in major units, converted to kobo when charged
+    @Column(length = 3)
+    private String currency;
+    private int intervalDays;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private SubscriptionStatus status;
+    private Instant nextChargeAt;
+    private int chargeCount; // successful charges, numbers the billing cycle
+    private int failedAttempts; // consecutive declined charges in this cycle
+    @Column(length = 100)
+    private String lastChargeReference;
+    private Instant lastChargedAt;
+    private Instant createdAt;
+    @Version
+    private Long version;
+}
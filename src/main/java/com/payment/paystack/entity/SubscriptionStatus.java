@@ -0,0 +1,7 @@
+package com.payment.paystack.entity;
+
+public enum SubscriptionStatus {
+    ACTIVE,
+    PAST_DUE, // last charge failed, in dunning
+    CANCELLED
+}
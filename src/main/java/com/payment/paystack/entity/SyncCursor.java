@@ -0,0 +1,53 @@
+package com.payment.paystack.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+
+// Position of an incremental sync: the newest (created_at, id) stored so far
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "paystack_sync_cursors")
+public class SyncCursor {
+    
+    @Id
+    @Column(length = 50)
+    private String name; // "transactions" or "transfers"
+    private Instant lastCreatedAt;
+    private Long lastId;
+    private Instant updatedAt;
+    
+    public SyncCursor(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Check if a row sorts after this cursor
+     */
+    public boolean isBefore(Instant createdAt, Long id) {
+        if (lastCreatedAt == null) {
+            return true;
+        }
+        if (createdAt == null) {
+            return false;
+        }
+        int cmp = createdAt.compareTo(lastCreatedAt);
+        if (cmp != 0) {
+            return cmp > 0;
+        }
+        return lastId == null || (id != null && id > lastId);
+    }
+    
+    public void advance(Instant createdAt, Long id) {
+        this.lastCreatedAt = createdAt;
+        this.lastId = id;
+        this.updatedAt = Instant.now();
+    }
+}
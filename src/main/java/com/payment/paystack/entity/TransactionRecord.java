@@ -0,0 +1,97 @@
+package com.payment.paystack.entity;
+
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+// Locally recorded Paystack transaction
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "paystack_transactions", indexes = {
+        @Index(name = "idx_paystack_transactions_created_at", columnList = "createdAt")
+})
+public class TransactionRecord {
+    
+    @Id
+    @Column(length = 100)
+    private String reference;
+    private Long paystackId;
+    @Column(length = 20)
+    private String status; // success, failed, abandoned, reversed
+    private BigDecimal amount; // in kobo
+    @Column(length = 3)
+    private String currency;
+    @Column(length = 30)
+    private String channel;
+    private String gatewayResponse;
+    private String customerEmail;
+    private Instant paidAt;
+    private Instant createdAt;
+    private Instant updatedAt; // when stored locally
+    private Long revision; // bumped on every status change
+    
+    /**
+     * Build a record from Paystack verification data
+     */
+    public static TransactionRecord from(TransactionVerificationData data) {
+        return TransactionRecord.builder()
+                .reference(data.getReference())
+                .paystackId(data.getId())
+                .status(data.getStatus())
+                .amount(data.getAmount())
+                .currency(data.getCurrency())
+                .channel(data.getChannel())
+                .gatewayResponse(data.getGatewayResponse())
+                .customerEmail(data.getCustomer() != null ? data.getCustomer().getEmail() : null)
+                .paidAt(parseInstant(data.getPaidAt()))
+                .createdAt(parseInstant(data.getCreatedAt()))
+                .updatedAt(Instant.now())
+                .build();
+    }
+    
+    /**
+     * Convert back to the verification data shape returned by the API
+     */
+    public TransactionVerificationData toVerificationData() {
+        TransactionVerificationData data = new TransactionVerificationData();
+        data.setId(paystackId);
+        data.setReference(reference);
+        data.setStatus(status);
+        data.setAmount(amount);
+        data.setCurrency(currency);
+        data.setChannel(channel);
+        data.setGatewayResponse(gatewayResponse);
+        data.setPaidAt(paidAt != null ? paidAt.toString() : null);
+        data.setCreatedAt(createdAt != null ? createdAt.toString() : null);
+        if (customerEmail != null) {
+            TransactionVerificationData.CustomerData customer = new TransactionVerificationData.CustomerData();
+            customer.setEmail(customerEmail);
+            data.setCustomer(customer);
+        }
+        return data;
+    }
+    
+    public static Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.payment.paystack.entity;
+
+import com.payment.paystack.dto.TransferListResponse.TransferListItem;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+// Locally recorded Paystack transfer (B2C payout)
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "paystack_transfers", indexes = {
+        @Index(name = "idx_paystack_transfers_created_at", columnList = "createdAt"),
+        @Index(name = "idx_paystack_transfers_reference", columnList = "reference")
+})
+public class TransferRecord {
+    
+    @Id
+    private Long id; // Paystack transfer id
+    @Column(length = 100)
+    private String reference;
+    @Column(length = 50)
+    private String transferCode;
+    @Column(length = 20)
+    private String status; // pending, success, failed, reversed
+    private BigDecimal amount; // in kobo
+    @Column(length = 3)
+    private String currency;
+    private String reason;
+    @Column(length = 50)
+    private String recipientCode;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant syncedAt; // when stored locally
+    private Long revision; // bumped on every status change
+    
+    /**
+     * Build a record from a Paystack transfer listing entry
+     */
+    public static TransferRecord from(TransferListItem item) {
+        Object recipientCode = item.getRecipient() != null ? item.getRecipient().get("recipient_code") : null;
+        return TransferRecord.builder()
+                .id(item.getId())
+                .reference(item.getReference())
+                .transferCode(item.getTransferCode())
+                .status(item.getStatus())
+                .amount(item.getAmount())
+                .currency(item.getCurrency())
+                .reason(item.getReason())
+                .recipientCode(recipientCode != null ? recipientCode.toString() : null)
+                .createdAt(TransactionRecord.parseInstant(item.getCreatedAt()))
+                .updatedAt(TransactionRecord.parseInstant(item.getUpdatedAt()))
+                .syncedAt(Instant.now())
+                .build();
+    }
+    
+    /**
+     * Convert back to the listing shape returned by the API
+     */
+    public TransferListItem toListItem() {
+        TransferListItem item = new TransferListItem();
+        item.setId(id);
+        item.setReference(reference);
+        item.setTransferCode(transferCode);
+        item.setStatus(status);
+        item.setAmount(amount);
+        item.setCurrency(currency);
+        item.setReason(reason);
+        item.setRecipient(recipientCode != null ? Map.of("recipient_code", recipientCode) : null);
+        item.setCreatedAt(createdAt != null ? createdAt.toString() : null);
+        item.setUpdatedAt(updatedAt != null ? updatedAt.toString() : null);
+        return item;
+    }
+}
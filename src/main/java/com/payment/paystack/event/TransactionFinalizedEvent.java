@@ -0,0 +1,23 @@
+package com.payment.paystack.event;
+
+import com.payment.paystack.entity.TransactionRecord;
+
+/**
+ * Published when a transaction reaches a final status, or moves from one
+ * final status to another. previous is then a copy of the row as it was
+ * before, so consumers can take back exactly what they counted for it.
+ *
+ * replicated marks an event recorded by another cluster member and passed
+ * on to this one; it is already stored and must not be sent on again.
+ */
+public record TransactionFinalizedEvent(TransactionRecord transaction, TransactionRecord previous,
+                                        boolean replicated) {
+    
+    public TransactionFinalizedEvent(TransactionRecord transaction, TransactionRecord previous) {
+        this(transaction, previous, false);
+    }
+    
+    public String previousStatus() {
+        return previous != null ? previous.getStatus() : null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.payment.paystack.exception;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Turns a failed Paystack call into the exception to throw, and records the
+ * original failure in the rate-limited error log. Known upstream failures become shared
+ * stackless exceptions; anything else keeps its message and cause.
+ */
+@Component
+@RequiredArgsConstructor
+public class ErrorClassifier {
+    
+    private final ErrorLog errorLog;
+    
+    /**
+     * @param operation what was being done, e.g. "verifying transaction"
+     */
+    public PaystackException classify(String operation, Exception error) {
+        ErrorType type = typeOf(error);
+        PaystackException exception;
+        if (error instanceof PaystackException paystackException) {
+            exception = paystackException;
+        } else if (type.isRetryable()) {
+            exception = UpstreamException.of(type);
+        } else {
+            exception = new PaystackException("Error " + operation + ": " + error.getMessage(), error);
+        }
+        
+        errorLog.record(operation, type, error);
+        return exception;
+    }
+    
+    public static ErrorType typeOf(Throwable error) {
+        if (error instanceof UpstreamException upstream) {
+            return upstream.getType();
+        }
+        if (error instanceof HttpServerErrorException) {
+            return ErrorType.UPSTREAM_SERVER_ERROR;
+        }
+        if (error instanceof HttpClientErrorException.TooManyRequests) {
+            return ErrorType.UPSTREAM_RATE_LIMITED;
+        }
+        if (error instanceof HttpClientErrorException) {
+            return ErrorType.UPSTREAM_CLIENT_ERROR;
+        }
+        if (error instanceof ResourceAccessException) {
+            return error.getCause() instanceof InterruptedIOException
+                    || error.getCause() instanceof HttpTimeoutException
+                    ? ErrorType.UPSTREAM_TIMEOUT
+                    : ErrorType.UPSTREAM_UNAVAILABLE;
+        }
+        if (error instanceof TimeoutException || error instanceof CancellationException) {
+            return ErrorType.UPSTREAM_TIMEOUT;
+        }
+        if (error instanceof PaystackException) {
+            return ErrorType.PAYSTACK_ERROR;
+        }
+        return ErrorType.INTERNAL_ERROR;
+    }
+}
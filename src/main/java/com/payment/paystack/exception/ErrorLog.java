@@ -0,0 +1,131 @@
+package com.payment.paystack.exception;
+
+import com.payment.paystack.config.PaystackProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicated, rate-limited error logging.
+ *
+ * Failures are counted per operation and error type. The first one is
+ * logged straight away; repeats within the log interval are only counted
+ * and reported in one line by the next failure after the interval, or by
+ * the periodic flush if none comes, so an outage costs a few log lines per
+ * interval instead of one per request.
+ *
+ * Deadline failures are left out: they are the caller's budget running out
+ * rather than Paystack failing, and DeadlineStats already counts them.
+ */
+@Slf4j
+@Component
+public class ErrorLog {
+    
+    private final Duration interval;
+    private final long intervalNanos;
+    private final ConcurrentMap<String, ConcurrentMap<ErrorType, Counter>> counters = new ConcurrentHashMap<>();
+    
+    public ErrorLog(PaystackProperties paystackProperties) {
+        this.interval = paystackProperties.getErrors().getLogInterval();
+        this.intervalNanos = interval.toNanos();
+    }
+    
+    /**
+     * @param error the failure as it was caught, before classification
+     */
+    public void record(String operation, ErrorType type, Throwable error) {
+        record(operation, type, error, System.nanoTime());
+    }
+    
+    /**
+     * @return whether this failure was logged rather than only counted
+     */
+    boolean record(String operation, ErrorType type, Throwable error, long now) {
+        if (type == ErrorType.DEADLINE_EXCEEDED) {
+            return false;
+        }
+        Counter counter = counters.computeIfAbsent(operation, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, key -> new Counter(operation, type));
+        counter.total.increment();
+        counter.sinceLogged.increment();
+        
+        long last = counter.lastLogged.get();
+        if ((last != 0 && now - last < intervalNanos) || !counter.lastLogged.compareAndSet(last, now)) {
+            return false;
+        }
+        
+        long count = counter.sinceLogged.sumThenReset();
+        if (type.isRetryable() || error instanceof UpstreamException) {
+            log.warn("Paystack {} failed: {} - {} ({} in the last {})",
+                    operation, type.getCode(), error, count, interval);
+        } else {
+            // Only the first failure per interval pays for a stack trace
+            log.error("Error {}: {} ({} in the last {})",
+                    operation, error.getMessage(), count, interval, error);
+        }
+        return true;
+    }
+    
+    /**
+     * Report repeats that no later failure reported, e.g. the tail of an
+     * outage that has since ended
+     */
+    @Scheduled(fixedDelayString = "${paystack.errors.log-interval:PT10S}")
+    public void flush() {
+        flush(System.nanoTime());
+    }
+    
+    /**
+     * @return the number of lines logged
+     */
+    int flush(long now) {
+        int logged = 0;
+        for (Map<ErrorType, Counter> byType : counters.values()) {
+            for (Counter counter : byType.values()) {
+                long last = counter.lastLogged.get();
+                if (counter.sinceLogged.sum() == 0 || now - last < intervalNanos
+                        || !counter.lastLogged.compareAndSet(last, now)) {
+                    continue;
+                }
+                long count = counter.sinceLogged.sumThenReset();
+                if (count > 0) {
+                    log.warn("Paystack {} failed: {} ({} more in the last {})",
+                            counter.operation, counter.type.getCode(), count, interval);
+                    logged++;
+                }
+            }
+        }
+        return logged;
+    }
+    
+    /**
+     * Failures seen since startup, by operation and error type
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        counters.forEach((operation, byType) -> byType.forEach(
+                (type, counter) -> counts.put(operation + " " + type.getCode(), counter.total.sum())));
+        return counts;
+    }
+    
+    private static final class Counter {
+        final String operation;
+        final ErrorType type;
+        final LongAdder total = new LongAdder();
+        final LongAdder sinceLogged = new LongAdder();
+        final AtomicLong lastLogged = new AtomicLong(); // 0 until the first log line
+        
+        Counter(String operation, ErrorType type) {
+            this.operation = operation;
+            this.type = type;
+        }
+    }
+}
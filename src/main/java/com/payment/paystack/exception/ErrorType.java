@@ -0,0 +1,95 @@
+package com.payment.paystack.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+/**
+ * Known failure classes. Response bodies are built once, so answering a
+ * failed request during an outage allocates next to nothing.
+ */
+public enum ErrorType {
+    UPSTREAM_TIMEOUT(HttpStatus.GATEWAY_TIMEOUT, "TIMEOUT",
+            "Payment service did not respond in time. Please try again later.", true),
+    UPSTREAM_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "CONNECTION_ERROR",
+            "Unable to reach payment service. Please try again later.", true),
+    UPSTREAM_SERVER_ERROR(HttpStatus.SERVICE_UNAVAILABLE, "HTTP_SERVER_ERROR",
+            "Payment service is temporarily unavailable", true),
+    UPSTREAM_RATE_LIMITED(HttpStatus.SERVICE_UNAVAILABLE, "RATE_LIMITED",
+            "Payment service is busy. Please try again later.", true),
+    DEADLINE_EXCEEDED(HttpStatus.GATEWAY_TIMEOUT, "DEADLINE_EXCEEDED",
+            "Request deadline exceeded", false),
+    UPSTREAM_CLIENT_ERROR(HttpStatus.BAD_REQUEST, "HTTP_CLIENT_ERROR",
+            "Payment service rejected the request", false),
+    PAYSTACK_ERROR(HttpStatus.BAD_REQUEST, "PAYSTACK_ERROR",
+            "Payment request failed", false),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR",
+            "An unexpected error occurred. Please try again later.", false);
+    
+    private final HttpStatus status;
+    private final String code;
+    private final String message;
+    private final boolean retryable;
+    private final Map<String, Object> body;
+    private final ResponseEntity<Map<String, Object>> response;
+    private ResponseEntity<byte[]> jsonResponse;
+    
+    ErrorType(HttpStatus status, String code, String message, boolean retryable) {
+        this.status = status;
+        this.code = code;
+        this.message = message;
+        this.retryable = retryable;
+        this.body = Map.of("success", false, "message", message, "error_type", code);
+        this.response = ResponseEntity.status(status).body(body);
+    }
+    
+    static {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (ErrorType type : values()) {
+            try {
+                type.jsonResponse = ResponseEntity.status(type.status)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(objectMapper.writeValueAsBytes(type.body));
+            } catch (JsonProcessingException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+    
+    public HttpStatus getStatus() {
+        return status;
+    }
+    
+    public String getCode() {
+        return code;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    /**
+     * Whether the same request may succeed if sent again later
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+    
+    /**
+     * Shared response for controllers returning a map body
+     */
+    public ResponseEntity<Map<String, Object>> toResponse() {
+        return response;
+    }
+    
+    /**
+     * Shared response with the body already serialized
+     */
+    public ResponseEntity<byte[]> toJsonResponse() {
+        return jsonResponse;
+    }
+}
@@ -15,9 +15,19 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
+    /**
+     * Known upstream failures: counted and logged where they were raised,
+     * answered with a prebuilt body
+     */
+    @ExceptionHandler(UpstreamException.class)
+    public ResponseEntity<byte[]> handleUpstreamException(UpstreamException ex) {
+        return ex.getType().toJsonResponse();
+    }
+    
     @ExceptionHandler(PaystackException.class)
     public ResponseEntity<Map<String, Object>> handlePaystackException(PaystackException ex) {
-        log.error("Paystack error: {}", ex.getMessage(), ex);
+        // Failures from PaystackService are already in the rate-limited error log
+        log.debug("Paystack error: {}", ex.getMessage());
         
         Map<String, Object> error = new HashMap<>();
         error.put("success", false);
@@ -9,4 +9,8 @@ public class PaystackException extends RuntimeException {
     public PaystackException(String message, Throwable cause) {
         super(message, cause);
     }
+    
+    protected PaystackException(String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, false, writableStackTrace);
+    }
 }
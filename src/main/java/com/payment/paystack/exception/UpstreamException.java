@@ -0,0 +1,45 @@
+package com.payment.paystack.exception;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Paystack could not be reached, failed on its side, or the request's
+ * deadline ran out before it answered. There is one shared, stackless
+ * instance per error type: the failure class is all callers act on, and
+ * under an outage these are thrown for nearly every request.
+ */
+public final class UpstreamException extends PaystackException {
+    
+    private static final Map<ErrorType, UpstreamException> INSTANCES = new EnumMap<>(ErrorType.class);
+    
+    static {
+        for (ErrorType type : ErrorType.values()) {
+            if (type.isRetryable() || type == ErrorType.DEADLINE_EXCEEDED) {
+                INSTANCES.put(type, new UpstreamException(type));
+            }
+        }
+    }
+    
+    private final ErrorType type;
+    
+    private UpstreamException(ErrorType type) {
+        super(type.getMessage(), null, false);
+        this.type = type;
+    }
+    
+    /**
+     * Shared instance for an upstream failure or deadline type
+     */
+    public static UpstreamException of(ErrorType type) {
+        UpstreamException exception = INSTANCES.get(type);
+        if (exception == null) {
+            throw new IllegalArgumentException(type + " is not an upstream failure");
+        }
+        return exception;
+    }
+    
+    public ErrorType getType() {
+        return type;
+    }
+}
@@ -0,0 +1,232 @@
+package com.payment.paystack.journal;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.config.PaystackProperties.JournalConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit journal of outbound Paystack requests and received
+ * webhooks.
+ *
+ * Records go to memory-mapped segment files, so an append is a memory copy
+ * under a short lock. A single flusher thread forces the mapped pages to
+ * disk; every append made while one force is running is covered by the
+ * next (group commit). Callers that must not acknowledge before the record
+ * is on disk wait with awaitDurable. Full segments are sealed and new ones
+ * started; sealed segments past the retention period are deleted.
+ */
+@Slf4j
+@Component
+public class Journal {
+    
+    private static final long FLUSH_RETRY_DELAY_NANOS = 100_000_000L;
+    
+    private final PaystackProperties paystackProperties;
+    private final Object durableMonitor = new Object();
+    private Path directory;
+    private Segment current; // guarded by this
+    private long appended; // guarded by this
+    private long durable; // guarded by durableMonitor
+    private volatile boolean running;
+    private Thread flusher;
+    
+    public Journal(PaystackProperties paystackProperties) {
+        this.paystackProperties = paystackProperties;
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        JournalConfig config = paystackProperties.getJournal();
+        if (!config.isEnabled()) {
+            return;
+        }
+        
+        directory = Path.of(config.getDirectory());
+        Files.createDirectories(directory);
+        long sequence = segmentSequences().stream().mapToLong(Long::longValue).max().orElse(1);
+        current = Segment.open(directory, sequence, startOffsetOf(sequence), config.getSegmentSize());
+        appended = current.endOffset();
+        durable = appended;
+        
+        running = true;
+        long opened = appended; // appends may land before the flusher first reads appended
+        flusher = Thread.ofPlatform().daemon().name("paystack-journal-flusher").start(() -> flushLoop(opened));
+        log.info("Journal open at {} (segment {})", directory.toAbsolutePath(), sequence);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        synchronized (this) {
+            notifyAll();
+        }
+        flusher.join();
+        synchronized (this) {
+            current.force();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return running;
+    }
+    
+    /**
+     * Append a record.
+     *
+     * @return the journal offset to pass to awaitDurable, or -1 if the
+     *         journal is disabled
+     */
+    public long append(RecordType type, String reference, byte[] payload) {
+        if (!running) {
+            return -1;
+        }
+        byte[] record = new JournalRecord(System.currentTimeMillis(), type, reference, payload).encode();
+        int segmentSize = paystackProperties.getJournal().getSegmentSize();
+        if (record.length > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + record.length + " bytes exceeds segment size");
+        }
+        
+        synchronized (this) {
+            if (!current.fits(record.length)) {
+                rotate(segmentSize);
+            }
+            appended = current.append(record);
+            notifyAll();
+            return appended;
+        }
+    }
+    
+    /**
+     * Wait until everything up to offset has been forced to disk
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitDurable(long offset, Duration timeout) throws InterruptedException {
+        if (offset < 0) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (durableMonitor) {
+            while (durable < offset) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                durableMonitor.wait(Math.max(1, remaining / 1_000_000));
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Delete sealed segments not written to within the retention period
+     */
+    @Scheduled(fixedDelayString = "${paystack.journal.compaction-interval:PT1H}")
+    public void compact() {
+        if (!running) {
+            return;
+        }
+        long currentSequence;
+        synchronized (this) {
+            currentSequence = current.getSequence();
+        }
+        Instant cutoff = Instant.now().minus(paystackProperties.getJournal().getRetention());
+        
+        for (long sequence : segmentSequences()) {
+            if (sequence >= currentSequence) {
+                continue;
+            }
+            Path file = Segment.pathOf(directory, sequence);
+            try {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    Files.delete(file);
+                    log.info("Deleted expired journal segment {}", file.getFileName());
+                }
+            } catch (IOException e) {
+                log.warn("Could not compact journal segment {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+    }
+    
+    private void rotate(int segmentSize) {
+        try {
+            current.seal();
+            markDurable(current.endOffset());
+            long sequence = current.getSequence() + 1;
+            current = Segment.open(directory, sequence, startOffsetOf(sequence), segmentSize);
+            log.debug("Journal rotated to segment {}", sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate journal segment", e);
+        }
+    }
+    
+    private void flushLoop(long flushed) {
+        while (true) {
+            Segment segment;
+            long target;
+            synchronized (this) {
+                while (running && appended == flushed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                segment = current;
+                target = appended;
+            }
+            
+            try {
+                segment.force();
+                flushed = target;
+                markDurable(target);
+            } catch (Exception e) {
+                log.error("Journal flush failed: {}", e.getMessage(), e);
+                LockSupport.parkNanos(FLUSH_RETRY_DELAY_NANOS); // back off before retrying
+            }
+        }
+    }
+    
+    private void markDurable(long offset) {
+        synchronized (durableMonitor) {
+            if (offset > durable) {
+                durable = offset;
+                durableMonitor.notifyAll();
+            }
+        }
+    }
+    
+    private List<Long> segmentSequences() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Segment::sequenceOf).filter(sequence -> sequence >= 0).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Offsets only need to grow across segments; a segment holds < 2^32 bytes
+    private static long startOffsetOf(long sequence) {
+        return sequence << 32;
+    }
+}
@@ -0,0 +1,90 @@
+package com.payment.paystack.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Scans journal segments in order, checking every record's CRC.
+ *
+ * Usage: java -cp target/classes com.payment.paystack.journal.JournalReader
+ * &lt;journal-directory&gt; [reference] [type]
+ */
+public final class JournalReader {
+    
+    private JournalReader() {
+    }
+    
+    /**
+     * Pass every valid record matching the filter to the consumer.
+     * Scanning a segment stops at its first torn or corrupt record.
+     *
+     * @return number of records matched
+     */
+    public static long scan(Path directory, Predicate<JournalRecord> filter, Consumer<JournalRecord> consumer)
+            throws IOException {
+        
+        long matched = 0;
+        for (Path file : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int position = 0;
+                int size;
+                while ((size = JournalRecord.sizeAt(buffer, position)) > 0) {
+                    JournalRecord record = JournalRecord.decode(buffer, position);
+                    if (filter.test(record)) {
+                        consumer.accept(record);
+                        matched++;
+                    }
+                    position += size;
+                }
+            }
+        }
+        return matched;
+    }
+    
+    public static Predicate<JournalRecord> byReference(String reference) {
+        return record -> reference.equals(record.reference());
+    }
+    
+    public static Predicate<JournalRecord> byType(RecordType type) {
+        return record -> record.type() == type;
+    }
+    
+    private static Iterable<Path> segments(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> Segment.sequenceOf(file) >= 0)
+                    .sorted(Comparator.comparingLong(Segment::sequenceOf))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JournalReader <journal-directory> [reference] [OUTBOUND_REQUEST|WEBHOOK]");
+            System.exit(2);
+        }
+        
+        Predicate<JournalRecord> filter = record -> true;
+        if (args.length > 1 && !args[1].isEmpty()) {
+            filter = filter.and(byReference(args[1]));
+        }
+        if (args.length > 2) {
+            filter = filter.and(byType(RecordType.valueOf(args[2])));
+        }
+        
+        long matched = scan(Path.of(args[0]), filter, record -> System.out.printf("%s %s %s%n%s%n%n",
+                record.time(), record.type(), record.reference(), record.payloadAsString()));
+        System.err.println(matched + " record(s)");
+    }
+}
@@ -0,0 +1,86 @@
+package com.payment.paystack.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * One journal entry.
+ *
+ * On disk: length (4), crc32 of the body (4), then the body: timestamp
+ * millis (8), type (1), reference length (2), reference, payload. A zero
+ * length marks the end of a segment.
+ */
+public record JournalRecord(long timestamp, RecordType type, String reference, byte[] payload) {
+    
+    static final int HEADER_SIZE = 8;
+    private static final int FIXED_BODY_SIZE = 11;
+    
+    public Instant time() {
+        return Instant.ofEpochMilli(timestamp);
+    }
+    
+    public String payloadAsString() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Serialize with header, ready to be copied into a segment
+     */
+    byte[] encode() {
+        byte[] ref = reference != null ? reference.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int bodySize = FIXED_BODY_SIZE + ref.length + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodySize);
+        buffer.putInt(bodySize).putInt(0)
+                .putLong(timestamp)
+                .put(type.getCode())
+                .putShort((short) ref.length)
+                .put(ref)
+                .put(payload);
+        
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, bodySize);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+    
+    /**
+     * Size on disk of the record at offset, or 0 at the end of the segment
+     * or at a torn or corrupt record
+     */
+    static int sizeAt(ByteBuffer segment, int offset) {
+        if (offset + HEADER_SIZE > segment.limit()) {
+            return 0;
+        }
+        int bodySize = segment.getInt(offset);
+        if (bodySize < FIXED_BODY_SIZE || bodySize > segment.limit() - offset - HEADER_SIZE) {
+            return 0;
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(offset + HEADER_SIZE, bodySize));
+        if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+            return 0;
+        }
+        return HEADER_SIZE + bodySize;
+    }
+    
+    /**
+     * Read the record at offset; call only after sizeAt accepted it
+     */
+    static JournalRecord decode(ByteBuffer segment, int offset) {
+        int bodySize = segment.getInt(offset);
+        int position = offset + HEADER_SIZE;
+        long timestamp = segment.getLong(position);
+        RecordType type = RecordType.of(segment.get(position + 8));
+        int refLength = segment.getShort(position + 9) & 0xFFFF;
+        
+        byte[] ref = new byte[refLength];
+        segment.get(position + FIXED_BODY_SIZE, ref);
+        byte[] payload = new byte[bodySize - FIXED_BODY_SIZE - refLength];
+        segment.get(position + FIXED_BODY_SIZE + refLength, payload);
+        
+        return new JournalRecord(timestamp, type, new String(ref, StandardCharsets.UTF_8), payload);
+    }
+}
@@ -0,0 +1,26 @@
+package com.payment.paystack.journal;
+
+// Kinds of journal records; the code is what is stored on disk
+public enum RecordType {
+    OUTBOUND_REQUEST((byte) 1),
+    WEBHOOK((byte) 2);
+    
+    private final byte code;
+    
+    RecordType(byte code) {
+        this.code = code;
+    }
+    
+    public byte getCode() {
+        return code;
+    }
+    
+    public static RecordType of(byte code) {
+        for (RecordType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+package com.payment.paystack.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed-size journal file mapped into memory. Appends are plain memory
+ * copies; durability comes from force(). A sealed segment is trimmed to
+ * the bytes actually written and never changes again.
+ */
+class Segment {
+    
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    
+    private final long sequence;
+    private final long startOffset; // journal-wide offset of this segment's first byte
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position;
+    private boolean sealed;
+    
+    private Segment(long sequence, long startOffset, FileChannel channel, MappedByteBuffer buffer, int position) {
+        this.sequence = sequence;
+        this.startOffset = startOffset;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.position = position;
+    }
+    
+    /**
+     * Open a segment for appending, creating it if needed. Existing records
+     * are scanned so appends resume after the last valid one.
+     */
+    static Segment open(Path directory, long sequence, long startOffset, int size) throws IOException {
+        FileChannel channel = FileChannel.open(pathOf(directory, sequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        
+        int position = 0;
+        int recordSize;
+        while ((recordSize = JournalRecord.sizeAt(buffer, position)) > 0) {
+            position += recordSize;
+        }
+        // Clear a torn tail so the reader stops at the right place
+        if (position + JournalRecord.HEADER_SIZE <= size) {
+            buffer.putLong(position, 0L);
+        }
+        return new Segment(sequence, startOffset, channel, buffer, position);
+    }
+    
+    static Path pathOf(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+    }
+    
+    /**
+     * Sequence number of a segment file, or -1 if the name does not match
+     */
+    static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    boolean fits(int bytes) {
+        return position + bytes <= buffer.capacity();
+    }
+    
+    boolean isEmpty() {
+        return position == 0;
+    }
+    
+    /**
+     * Copy an encoded record in and return the journal offset after it
+     */
+    long append(byte[] record) {
+        buffer.put(position, record);
+        position += record.length;
+        return endOffset();
+    }
+    
+    long endOffset() {
+        return startOffset + position;
+    }
+    
+    long getSequence() {
+        return sequence;
+    }
+    
+    synchronized void force() {
+        if (!sealed) {
+            buffer.force();
+        }
+    }
+    
+    /**
+     * Flush, trim the file to its contents and stop writing
+     */
+    synchronized void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        buffer.force();
+        sealed = true;
+        channel.truncate(position);
+        channel.close();
+    }
+}
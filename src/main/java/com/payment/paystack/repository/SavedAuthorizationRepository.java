@@ -0,0 +1,13 @@
+package com.payment.paystack.repository;
+
+import com.payment.paystack.entity.SavedAuthorization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SavedAuthorizationRepository extends JpaRepository<SavedAuthorization, String> {
+    
+    Optional<SavedAuthorization> findFirstByEmailAndReusableTrueOrderByCreatedAtDesc(String email);
+}
@@ -0,0 +1,33 @@
+package com.payment.paystack.repository;
+
+import com.payment.paystack.entity.Subscription;
+import com.payment.paystack.entity.SubscriptionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+    
+    /**
+     * Subscriptions due by until, including overdue ones, one keyset page at a time
+     */
+    @Query("select s.id as id, s.nextChargeAt as nextChargeAt from Subscription s "
+            + "where s.status in :statuses and s.nextChargeAt <= :until "
+            + "and s.id > :afterId order by s.id")
+    List<DueSubscription> findDue(@Param("statuses") Collection<SubscriptionStatus> statuses,
+                                  @Param("until") Instant until,
+                                  @Param("afterId") long afterId,
+                                  Pageable page);
+    
+    interface DueSubscription {
+        Long getId();
+        Instant getNextChargeAt();
+    }
+}
@@ -0,0 +1,9 @@
+package com.payment.paystack.repository;
+
+import com.payment.paystack.entity.SyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncCursorRepository extends JpaRepository<SyncCursor, String> {
+}
@@ -0,0 +1,40 @@
+package com.payment.paystack.repository;
+
+import com.payment.paystack.entity.TransferRecord;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface TransferRecordRepository extends JpaRepository<TransferRecord, Long> {
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from TransferRecord t order by t.createdAt, t.id")
+    Stream<TransferRecord> streamAll();
+    
+    /**
+     * Load a row and lock it until the surrounding transaction ends, so
+     * status changes to it are applied one at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TransferRecord t where t.id = :id")
+    Optional<TransferRecord> findForUpdate(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TransferRecord t where t.id in :ids")
+    List<TransferRecord> findAllForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,141 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.deadline.Deadline;
+import com.payment.paystack.dto.BatchVerifyResult;
+import com.payment.paystack.dto.VerifyTransactionResponse;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchVerificationService {
+    
+    private final PaystackService paystackService;
+    private final TransactionLedger transactionLedger;
+    private final PaystackProperties paystackProperties;
+    private final ExecutorService paystackVerifyExecutor;
+    
+    /**
+     * Verify a batch of references. Final states already in the ledger are
+     * answered first; the rest are verified against Paystack in parallel and
+     * handed to the sink as they complete. References still outstanding when
+     * the batch deadline passes are cancelled and reported as timeouts.
+     */
+    public void verify(Collection<String> references, Consumer<BatchVerifyResult> sink) {
+        verify(references, null, sink);
+    }
+    
+    /**
+     * Verify a batch within the caller's deadline, if it is earlier than
+     * the batch deadline
+     */
+    public void verify(Collection<String> references, Deadline requestDeadline, Consumer<BatchVerifyResult> sink) {
+        PaystackProperties.BatchConfig config = paystackProperties.getBatch();
+        long deadline = requestDeadline != null
+                ? requestDeadline.orAfter(config.getDeadline()).nanoTime()
+                : System.nanoTime() + config.getDeadline().toNanos();
+        
+        Set<String> unique = new LinkedHashSet<>();
+        for (String reference : references) {
+            if (reference != null && !reference.isBlank()) {
+                unique.add(reference.trim());
+            }
+        }
+        
+        Map<String, TransactionVerificationData> stored = transactionLedger.findAllFinal(unique);
+        List<String> remote = new ArrayList<>();
+        for (String reference : unique) {
+            TransactionVerificationData data = stored.get(reference);
+            if (data != null) {
+                sink.accept(BatchVerifyResult.ledger(reference, data));
+            } else {
+                remote.add(reference);
+            }
+        }
+        
+        if (remote.isEmpty()) {
+            return;
+        }
+        
+        log.info("Batch verification: {} from ledger, {} from Paystack",
+                unique.size() - remote.size(), remote.size());
+        
+        Semaphore permits = new Semaphore(config.getConcurrency());
+        BlockingQueue<BatchVerifyResult> completed = new LinkedBlockingQueue<>();
+        Map<String, Future<?>> pending = new LinkedHashMap<>();
+        for (String reference : remote) {
+            pending.put(reference, paystackVerifyExecutor.submit(
+                    () -> completed.add(verifyRemote(reference, permits))));
+        }
+        
+        try {
+            while (!pending.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                BatchVerifyResult result = remaining > 0
+                        ? completed.poll(remaining, TimeUnit.NANOSECONDS)
+                        : completed.poll();
+                if (result == null) {
+                    break;
+                }
+                pending.remove(result.getReference());
+                sink.accept(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pending.values().removeIf(future -> !future.cancel(true));
+        }
+        
+        // Results that landed after the last poll are still reported as such;
+        // whatever a cancelled call left behind was caused by the interrupt
+        List<BatchVerifyResult> late = new ArrayList<>();
+        completed.drainTo(late);
+        for (BatchVerifyResult result : late) {
+            if (!pending.containsKey(result.getReference())) {
+                sink.accept(result);
+            }
+        }
+        
+        if (!pending.isEmpty()) {
+            log.warn("Batch verification deadline exceeded with {} references outstanding", pending.size());
+            pending.keySet().forEach(reference -> sink.accept(BatchVerifyResult.timeout(reference)));
+        }
+    }
+    
+    private BatchVerifyResult verifyRemote(String reference, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BatchVerifyResult.timeout(reference);
+        }
+        
+        try {
+            VerifyTransactionResponse response = paystackService.verifyTransaction(reference);
+            return BatchVerifyResult.paystack(reference, response.getData());
+        } catch (Exception e) {
+            return BatchVerifyResult.error(reference, e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.payment.paystack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.dto.TransferListResponse.TransferListItem;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.repository.TransferRecordRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams locally stored rows straight from a database cursor to the
+ * response. Rows are detached once written, so memory stays flat no matter
+ * how many rows are exported.
+ *
+ * Both formats are written from the shape the API returns: transactions as
+ * verification data, transfers as listing entries. NDJSON lines are those
+ * objects; CSV columns are their fields under the same names, nested ones
+ * joined with a dot.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private static final List<Column<TransactionVerificationData>> TRANSACTION_COLUMNS = List.of(
+            new Column<>("id", TransactionVerificationData::getId),
+            new Column<>("reference", TransactionVerificationData::getReference),
+            new Column<>("status", TransactionVerificationData::getStatus),
+            new Column<>("amount", TransactionVerificationData::getAmount),
+            new Column<>("currency", TransactionVerificationData::getCurrency),
+            new Column<>("channel", TransactionVerificationData::getChannel),
+            new Column<>("gateway_response", TransactionVerificationData::getGatewayResponse),
+            new Column<>("customer.email", data -> data.getCustomer() != null ? data.getCustomer().getEmail() : null),
+            new Column<>("paid_at", TransactionVerificationData::getPaidAt),
+            new Column<>("created_at", TransactionVerificationData::getCreatedAt));
+    
+    private static final List<Column<TransferListItem>> TRANSFER_COLUMNS = List.of(
+            new Column<>("id", TransferListItem::getId),
+            new Column<>("reference", TransferListItem::getReference),
+            new Column<>("transfer_code", TransferListItem::getTransferCode),
+            new Column<>("status", TransferListItem::getStatus),
+            new Column<>("amount", TransferListItem::getAmount),
+            new Column<>("currency", TransferListItem::getCurrency),
+            new Column<>("reason", TransferListItem::getReason),
+            new Column<>("recipient.recipient_code",
+                    item -> item.getRecipient() != null ? item.getRecipient().get("recipient_code") : null),
+            new Column<>("created_at", TransferListItem::getCreatedAt),
+            new Column<>("updated_at", TransferListItem::getUpdatedAt));
+    
+    public enum Format {
+        CSV, NDJSON;
+        
+        /**
+         * Parse a format name; empty if it is not one of the supported formats
+         */
+        public static Optional<Format> parse(String value) {
+            if (value == null) {
+                return Optional.of(CSV);
+            }
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return Optional.of(format);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+    
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final TransferRecordRepository transferRecordRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(readOnly = true)
+    public void exportTransactions(Format format, OutputStream out) throws IOException {
+        try (Stream<TransactionRecord> rows = transactionRecordRepository.streamAll()) {
+            write(rows, TransactionRecord::toVerificationData, TRANSACTION_COLUMNS, format, out);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportTransfers(Format format, OutputStream out) throws IOException {
+        try (Stream<TransferRecord> rows = transferRecordRepository.streamAll()) {
+            write(rows, TransferRecord::toListItem, TRANSFER_COLUMNS, format, out);
+        }
+    }
+    
+    private <T, P> void write(Stream<T> rows,
+                              Function<T, P> projection,
+                              List<Column<P>> columns,
+                              Format format,
+                              OutputStream out) throws IOException {
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.CSV) {
+            writeCsvLine(writer, columns.stream().map(Column::name).toArray());
+        }
+        
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            P projected = projection.apply(row);
+            if (format == Format.CSV) {
+                writeCsvLine(writer, columns.stream().map(column -> column.value().apply(projected)).toArray());
+            } else {
+                writer.write(objectMapper.writeValueAsString(projected));
+                writer.write('\n');
+            }
+            entityManager.detach(row);
+        }
+        writer.flush();
+    }
+    
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvEscape(values[i]));
+        }
+        writer.write('\n');
+    }
+    
+    private String csvEscape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+    
+    // An exported field: its name in the projection's JSON and how to read it
+    private record Column<P>(String name, Function<P, Object> value) {
+    }
+}
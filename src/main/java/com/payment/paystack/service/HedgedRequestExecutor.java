@@ -0,0 +1,155 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.exception.PaystackException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs idempotent Paystack reads with optional hedging: if the first
+ * attempt is slower than a percentile of recent latencies, a second one is
+ * sent and whichever succeeds first wins; the other is cancelled.
+ *
+ * Hedges are paid for out of a budget that grows with every request, so
+ * hedging can add at most budget-percent extra load even when Paystack is
+ * slow across the board.
+ *
+ * The hedge delay is a percentile of successful first attempts only, one
+ * sample per call: failures return early and hedges start late, so either
+ * would pull the percentile down.
+ */
+@Slf4j
+@Component
+public class HedgedRequestExecutor {
+    
+    private static final long TOKEN = 1_000_000L; // one hedge, in micro-tokens
+    private static final long MAX_TOKENS = 10 * TOKEN; // burst allowance
+    
+    private final PaystackProperties.HedgeConfig config;
+    private final ExecutorService paystackVerifyExecutor;
+    private final LatencyTracker latencyTracker;
+    private final long tokensPerRequest;
+    private final AtomicLong budget = new AtomicLong(MAX_TOKENS);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    
+    public HedgedRequestExecutor(PaystackProperties paystackProperties, ExecutorService paystackVerifyExecutor) {
+        this.config = paystackProperties.getHedge();
+        this.paystackVerifyExecutor = paystackVerifyExecutor;
+        this.latencyTracker = new LatencyTracker(config.getPercentile(), config.getSampleWindow());
+        this.tokensPerRequest = (long) (TOKEN * config.getBudgetPercent() / 100.0);
+    }
+    
+    /**
+     * Run an idempotent call, hedging it when enabled
+     */
+    public <T> T execute(Callable<T> call) throws Exception {
+        requests.increment();
+        if (!config.isEnabled()) {
+            long start = System.nanoTime();
+            T result = call.call();
+            latencyTracker.record(System.nanoTime() - start);
+            return result;
+        }
+        
+        earnBudget();
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger(1);
+        Future<?> primary = launch(call, winner, attempts, false);
+        Future<?> hedge = null;
+        
+        try {
+            try {
+                return winner.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!spendBudget()) {
+                    return winner.get();
+                }
+            }
+            
+            attempts.incrementAndGet();
+            hedges.increment();
+            hedge = launch(call, winner, attempts, true);
+            return winner.get();
+            
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw new PaystackException("Request failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaystackException("Request interrupted", e);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("requests", requests.sum());
+        stats.put("hedges", hedges.sum());
+        stats.put("hedge_wins", hedgeWins.sum());
+        stats.put("hedge_delay_ms", hedgeDelayNanos() / 1_000_000.0);
+        return stats;
+    }
+    
+    private <T> Future<?> launch(Callable<T> call, CompletableFuture<T> winner, AtomicInteger attempts, boolean isHedge) {
+        return paystackVerifyExecutor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = call.call();
+                if (!isHedge) {
+                    latencyTracker.record(System.nanoTime() - start);
+                }
+                if (winner.complete(result) && isHedge) {
+                    hedgeWins.increment();
+                }
+            } catch (Throwable e) {
+                // Fail only when no other attempt can still succeed
+                if (attempts.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e);
+                }
+            }
+        });
+    }
+    
+    private long hedgeDelayNanos() {
+        long observed = latencyTracker.percentileNanos();
+        long delay = observed > 0 ? observed : config.getInitialDelay().toNanos();
+        return Math.max(delay, config.getMinDelay().toNanos());
+    }
+    
+    private void earnBudget() {
+        budget.getAndUpdate(tokens -> Math.min(MAX_TOKENS, tokens + tokensPerRequest));
+    }
+    
+    private boolean spendBudget() {
+        long tokens;
+        do {
+            tokens = budget.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(tokens, tokens - TOKEN));
+        return true;
+    }
+}
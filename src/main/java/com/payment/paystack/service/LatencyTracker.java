@@ -0,0 +1,56 @@
+package com.payment.paystack.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window of recent latencies with a periodically recomputed
+ * percentile. Recording is lock-free; the percentile is refreshed every
+ * {@value #RECOMPUTE_EVERY} samples so reading it is a volatile load.
+ */
+class LatencyTracker {
+    
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final int MIN_SAMPLES = 100;
+    
+    private final double percentile;
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private volatile long percentileNanos = -1;
+    
+    LatencyTracker(double percentile, int window) {
+        this.percentile = percentile;
+        this.samples = new AtomicLongArray(Math.max(window, MIN_SAMPLES));
+    }
+    
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        if ((n + 1) % RECOMPUTE_EVERY == 0) {
+            recompute();
+        }
+    }
+    
+    /**
+     * The tracked percentile in nanoseconds, or -1 until enough samples
+     * have been recorded
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+    
+    private void recompute() {
+        int filled = (int) Math.min(count.get(), samples.length());
+        if (filled < MIN_SAMPLES) {
+            return;
+        }
+        long[] copy = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile / 100.0 * filled) - 1;
+        percentileNanos = copy[Math.max(0, Math.min(index, filled - 1))];
+    }
+}
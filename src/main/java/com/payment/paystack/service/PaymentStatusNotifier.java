@@ -0,0 +1,149 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the final status of a payment to subscribed clients over SSE.
+ *
+ * Subscriptions are parked async requests, so an idle subscriber holds no
+ * servlet thread. Each one is completed when the ledger records a final
+ * state for its reference, when it times out, or when the client goes away.
+ */
+@Slf4j
+@Service
+public class PaymentStatusNotifier {
+    
+    private final TransactionLedger transactionLedger;
+    private final PaystackProperties paystackProperties;
+    private final Map<String, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    
+    public PaymentStatusNotifier(TransactionLedger transactionLedger, PaystackProperties paystackProperties) {
+        this.transactionLedger = transactionLedger;
+        this.paystackProperties = paystackProperties;
+    }
+    
+    /**
+     * Subscribe to the final status of a transaction
+     *
+     * @return the emitter, or empty if the subscription limit is reached
+     */
+    public Optional<SseEmitter> subscribe(String reference) {
+        PaystackProperties.StatusStreamConfig config = paystackProperties.getStatusStream();
+        if (subscriptions.incrementAndGet() > config.getMaxSubscriptions()) {
+            subscriptions.decrementAndGet();
+            return Optional.empty();
+        }
+        
+        SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+        Subscription subscription = new Subscription(reference, emitter);
+        emitter.onCompletion(subscription::close);
+        emitter.onError(error -> subscription.close());
+        emitter.onTimeout(() -> {
+            subscription.close();
+            emitter.complete();
+        });
+        // Added inside compute so release() or publish() cannot drop the set
+        // between looking it up and adding to it
+        subscribers.compute(reference, (key, set) -> {
+            Set<Subscription> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscription);
+            return target;
+        });
+        
+        // Checked after registering so a state recorded in between is not missed
+        transactionLedger.findFinal(reference).ifPresent(data -> {
+            publish(reference, data);
+            subscription.deliver(data);
+        });
+        return Optional.of(emitter);
+    }
+    
+    public int getSubscriptionCount() {
+        return subscriptions.get();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionFinalized(TransactionFinalizedEvent event) {
+        publish(event.transaction().getReference(), event.transaction().toVerificationData());
+    }
+    
+    /**
+     * Keep idle connections open through proxies and find clients that left
+     */
+    @Scheduled(fixedDelayString = "PT30S")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscription::ping));
+    }
+    
+    private void publish(String reference, TransactionVerificationData data) {
+        Set<Subscription> set = subscribers.remove(reference);
+        if (set != null) {
+            set.forEach(subscription -> subscription.deliver(data));
+        }
+    }
+    
+    private final class Subscription {
+        private final String reference;
+        private final SseEmitter emitter;
+        private final AtomicBoolean done = new AtomicBoolean();
+        
+        Subscription(String reference, SseEmitter emitter) {
+            this.reference = reference;
+            this.emitter = emitter;
+        }
+        
+        void deliver(TransactionVerificationData data) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("status").data(data));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not deliver status for {}: {}", reference, e.getMessage());
+                emitter.completeWithError(e);
+            } finally {
+                release();
+            }
+        }
+        
+        void ping() {
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+        
+        void close() {
+            if (done.compareAndSet(false, true)) {
+                release();
+            }
+        }
+        
+        private void release() {
+            subscriptions.decrementAndGet();
+            subscribers.computeIfPresent(reference, (key, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
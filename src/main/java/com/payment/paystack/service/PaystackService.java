@@ -2,37 +2,61 @@ package com.payment.paystack.service;
 
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.cluster.LedgerRouter;
+import com.payment.paystack.config.PaystackConfigHolder;
+import com.payment.paystack.config.PaystackSnapshot;
+import com.payment.paystack.deadline.DeadlineGuard;
+import com.payment.paystack.dto.ChargeAuthorizationRequest;
 import com.payment.paystack.dto.CreateRecipientRequest;
 import com.payment.paystack.dto.CreateRecipientResponse;
 import com.payment.paystack.dto.InitializeTransactionRequest;
 import com.payment.paystack.dto.InitializeTransactionResponse;
+import com.payment.paystack.dto.TransactionListResponse;
+import com.payment.paystack.dto.TransferListResponse;
 import com.payment.paystack.dto.TransferRequest;
 import com.payment.paystack.dto.TransferResponse;
 import com.payment.paystack.dto.VerifyTransactionResponse;
+import com.payment.paystack.exception.ErrorClassifier;
 import com.payment.paystack.exception.PaystackException;
+import com.payment.paystack.journal.Journal;
+import com.payment.paystack.journal.RecordType;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaystackService {
     
+    // Outbound fields that never reach the journal in full
+    private static final Map<String, UnaryOperator<String>> JOURNAL_REDACTIONS = Map.of(
+            "authorization_code", value -> "[REDACTED]",
+            "account_number", value -> "****" + value.substring(Math.max(0, value.length() - 4)));
+    
     private final RestTemplate paystackRestTemplate;
-    private final PaystackProperties paystackProperties;
+    private final PaystackConfigHolder paystackConfigHolder;
+    private final LedgerRouter ledgerRouter;
+    private final HedgedRequestExecutor hedgedRequestExecutor;
+    private final DeadlineGuard deadlineGuard;
+    private final Journal journal;
+    private final ObjectMapper objectMapper;
+    private final ErrorClassifier errorClassifier;
     
     /**
      * Initialize a transaction for customer payment (STK Push equivalent)
@@ -43,6 +67,7 @@ public class PaystackService {
             String currency,
             String[] channels) {
         
+        PaystackSnapshot config = paystackConfigHolder.current();
         String reference = generateReference();
         
         InitializeTransactionRequest request = InitializeTransactionRequest.builder()
@@ -50,25 +75,27 @@ public class PaystackService {
                 .amount(convertToKobo(amount))
                 .currency(currency != null ? currency : "NGN")
                 .reference(reference)
-                .callbackUrl(paystackProperties.getCallbackUrl())
+                .callbackUrl(config.getCallbackUrl())
                 .channels(channels != null ? channels : new String[]{"mobile_money", "card", "bank"})
                 .build();
         
-        String url = paystackProperties.getActiveConfig().getBaseUrl() + "/transaction/initialize";
+        String url = config.getBaseUrl() + "/transaction/initialize";
         
         try {
-            HttpHeaders headers = createHeaders();
+            HttpHeaders headers = config.getHeaders();
             HttpEntity<InitializeTransactionRequest> entity = new HttpEntity<>(request, headers);
+            journalRequest(reference, HttpMethod.POST, url, request);
             
             log.info("Initializing transaction for email: {} with reference: {} in {} environment",
-                    email, reference, paystackProperties.getActiveEnv());
+                    email, reference, config.getEnvironment());
             
-            ResponseEntity<InitializeTransactionResponse> response = paystackRestTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    InitializeTransactionResponse.class
-            );
+            ResponseEntity<InitializeTransactionResponse> response = deadlineGuard.send(
+                    () -> paystackRestTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            entity,
+                            InitializeTransactionResponse.class
+                    ));
             
             if (response.getBody() != null && response.getBody().isStatus()) {
                 log.info("Transaction initialized successfully: {}", reference);
@@ -79,8 +106,7 @@ public class PaystackService {
             }
             
         } catch (Exception e) {
-            log.error("Error initializing transaction: {}", e.getMessage(), e);
-            throw new PaystackException("Error initializing transaction: " + e.getMessage(), e);
+            throw errorClassifier.classify("initializing transaction", e);
         }
     }
     
@@ -88,34 +114,92 @@ public class PaystackService {
      * Verify a transaction
      */
     public VerifyTransactionResponse verifyTransaction(String reference) {
-        String url = paystackProperties.getActiveConfig().getBaseUrl() + "/transaction/verify/" + reference;
+        PaystackSnapshot config = paystackConfigHolder.current();
+        String url = config.getBaseUrl() + "/transaction/verify/" + reference;
         
         try {
-            HttpHeaders headers = createHeaders();
+            HttpHeaders headers = config.getHeaders();
             HttpEntity<Void> entity = new HttpEntity<>(headers);
+            journalRequest(reference, HttpMethod.GET, url, null);
             
             log.info("Verifying transaction with reference: {} in {} environment",
-                    reference, paystackProperties.getActiveEnv());
+                    reference, config.getEnvironment());
             
-            ResponseEntity<VerifyTransactionResponse> response = paystackRestTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    VerifyTransactionResponse.class
-            );
+            // Idempotent read, so it may be hedged against a slow first attempt
+            ResponseEntity<VerifyTransactionResponse> response = deadlineGuard.call(
+                    () -> hedgedRequestExecutor.execute(
+                            () -> paystackRestTemplate.exchange(
+                                    url,
+                                    HttpMethod.GET,
+                                    entity,
+                                    VerifyTransactionResponse.class
+                            )));
             
             if (response.getBody() != null) {
                 log.info("Transaction verification response - Status: {}, Message: {}",
                         response.getBody().getData().getStatus(),
                         response.getBody().getMessage());
+                recordVerification(response.getBody());
                 return response.getBody();
             } else {
                 throw new PaystackException("Failed to verify transaction: No response body");
             }
             
         } catch (Exception e) {
-            log.error("Error verifying transaction: {}", e.getMessage(), e);
-            throw new PaystackException("Error verifying transaction: " + e.getMessage(), e);
+            throw errorClassifier.classify("verifying transaction", e);
+        }
+    }
+    
+    /**
+     * Charge a saved card authorization (recurring billing). The reference
+     * is chosen by the caller so a retried charge cannot be applied twice.
+     * Declined charges are returned, not thrown: check data.status.
+     */
+    public VerifyTransactionResponse chargeAuthorization(
+            String email,
+            BigDecimal amount,
+            String authorizationCode,
+            String currency,
+            String reference) {
+        
+        ChargeAuthorizationRequest request = ChargeAuthorizationRequest.builder()
+                .email(email)
+                .amount(convertToKobo(amount))
+                .authorizationCode(authorizationCode)
+                .currency(currency != null ? currency : "NGN")
+                .reference(reference)
+                .build();
+        
+        PaystackSnapshot config = paystackConfigHolder.current();
+        String url = config.getBaseUrl() + "/transaction/charge_authorization";
+        
+        try {
+            HttpHeaders headers = config.getHeaders();
+            HttpEntity<ChargeAuthorizationRequest> entity = new HttpEntity<>(request, headers);
+            journalRequest(reference, HttpMethod.POST, url, request);
+            
+            log.info("Charging authorization for email: {} with reference: {} in {} environment",
+                    email, reference, config.getEnvironment());
+            
+            ResponseEntity<VerifyTransactionResponse> response = deadlineGuard.send(
+                    () -> paystackRestTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            entity,
+                            VerifyTransactionResponse.class
+                    ));
+            
+            if (response.getBody() != null) {
+                if (response.getBody().getData() != null) {
+                    recordVerification(response.getBody());
+                }
+                return response.getBody();
+            } else {
+                throw new PaystackException("Failed to charge authorization: No response body");
+            }
+            
+        } catch (Exception e) {
+            throw errorClassifier.classify("charging authorization", e);
         }
     }
     
@@ -137,25 +221,29 @@ public class PaystackService {
                 .currency(currency != null ? currency : "NGN")
                 .build();
         
-        String url = paystackProperties.getActiveConfig().getBaseUrl() + "/transferrecipient";
+        PaystackSnapshot config = paystackConfigHolder.current();
+        String url = config.getBaseUrl() + "/transferrecipient";
+        String requestKey = recipientKey(bankCode, accountNumber); // journal key the caller can rebuild
         
         try {
-            HttpHeaders headers = createHeaders();
+            HttpHeaders headers = config.getHeaders();
             HttpEntity<CreateRecipientRequest> entity = new HttpEntity<>(request, headers);
+            journalRequest(requestKey, HttpMethod.POST, url, request);
             
-            log.info("Creating transfer recipient: {} in {} environment",
-                    name, paystackProperties.getActiveEnv());
+            log.info("Creating transfer recipient: {} ({}) in {} environment",
+                    name, requestKey, config.getEnvironment());
             
-            ResponseEntity<CreateRecipientResponse> response = paystackRestTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    CreateRecipientResponse.class
-            );
+            ResponseEntity<CreateRecipientResponse> response = deadlineGuard.send(
+                    () -> paystackRestTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            entity,
+                            CreateRecipientResponse.class
+                    ));
             
             if (response.getBody() != null && response.getBody().isStatus()) {
-                log.info("Transfer recipient created successfully: {}", 
-                        response.getBody().getData().getRecipientCode());
+                log.info("Transfer recipient created successfully: {} ({})",
+                        response.getBody().getData().getRecipientCode(), requestKey);
                 return response.getBody();
             } else {
                 throw new PaystackException("Failed to create recipient: " + 
@@ -163,8 +251,7 @@ public class PaystackService {
             }
             
         } catch (Exception e) {
-            log.error("Error creating transfer recipient: {}", e.getMessage(), e);
-            throw new PaystackException("Error creating transfer recipient: " + e.getMessage(), e);
+            throw errorClassifier.classify("creating transfer recipient", e);
         }
     }
     
@@ -188,21 +275,24 @@ public class PaystackService {
                 .reference(reference)
                 .build();
         
-        String url = paystackProperties.getActiveConfig().getBaseUrl() + "/transfer";
+        PaystackSnapshot config = paystackConfigHolder.current();
+        String url = config.getBaseUrl() + "/transfer";
         
         try {
-            HttpHeaders headers = createHeaders();
+            HttpHeaders headers = config.getHeaders();
             HttpEntity<TransferRequest> entity = new HttpEntity<>(request, headers);
+            journalRequest(reference, HttpMethod.POST, url, request);
             
             log.info("Initiating transfer to recipient: {} with reference: {} in {} environment",
-                    recipientCode, reference, paystackProperties.getActiveEnv());
+                    recipientCode, reference, config.getEnvironment());
             
-            ResponseEntity<TransferResponse> response = paystackRestTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    entity,
-                    TransferResponse.class
-            );
+            ResponseEntity<TransferResponse> response = deadlineGuard.send(
+                    () -> paystackRestTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            entity,
+                            TransferResponse.class
+                    ));
             
             if (response.getBody() != null && response.getBody().isStatus()) {
                 log.info("Transfer initiated successfully: {}", reference);
@@ -213,75 +303,183 @@ public class PaystackService {
             }
             
         } catch (Exception e) {
-            log.error("Error initiating transfer: {}", e.getMessage(), e);
-            throw new PaystackException("Error initiating transfer: " + e.getMessage(), e);
+            throw errorClassifier.classify("initiating transfer", e);
         }
     }
     
     /**
-     * Verify webhook signature
+     * List transactions created in [from, to], newest first
      */
-    public boolean verifyWebhookSignature(String payload, String signature) {
+    public TransactionListResponse listTransactions(Instant from, Instant to, int page, int perPage) {
+        PaystackSnapshot config = paystackConfigHolder.current();
+        String url = listUrl(config, "/transaction", from, to, page, perPage);
+        
         try {
-            String computedSignature = computeHmacSha512(
-                    payload,
-                    paystackProperties.getWebhookSecret()
-            );
-            return computedSignature.equals(signature);
+            HttpEntity<Void> entity = new HttpEntity<>(config.getHeaders());
+            journalRequest(null, HttpMethod.GET, url, null);
+            
+            ResponseEntity<TransactionListResponse> response = deadlineGuard.call(
+                    () -> paystackRestTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            entity,
+                            TransactionListResponse.class
+                    ));
+            
+            if (response.getBody() != null && response.getBody().isStatus()) {
+                return response.getBody();
+            } else {
+                throw new PaystackException("Failed to list transactions: " + 
+                        (response.getBody() != null ? response.getBody().getMessage() : "Unknown error"));
+            }
+            
         } catch (Exception e) {
-            log.error("Error verifying webhook signature: {}", e.getMessage(), e);
-            return false;
+            throw errorClassifier.classify("listing transactions", e);
         }
     }
     
+    /**
+     * List transfers created in [from, to], newest first
+     */
+    public TransferListResponse listTransfers(Instant from, Instant to, int page, int perPage) {
+        PaystackSnapshot config = paystackConfigHolder.current();
+        String url = listUrl(config, "/transfer", from, to, page, perPage);
+        
+        try {
+            HttpEntity<Void> entity = new HttpEntity<>(config.getHeaders());
+            journalRequest(null, HttpMethod.GET, url, null);
+            
+            ResponseEntity<TransferListResponse> response = deadlineGuard.call(
+                    () -> paystackRestTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            entity,
+                            TransferListResponse.class
+                    ));
+            
+            if (response.getBody() != null && response.getBody().isStatus()) {
+                return response.getBody();
+            } else {
+                throw new PaystackException("Failed to list transfers: " + 
+                        (response.getBody() != null ? response.getBody().getMessage() : "Unknown error"));
+            }
+            
+        } catch (Exception e) {
+            throw errorClassifier.classify("listing transfers", e);
+        }
+    }
+    
+    /**
+     * Verify webhook signature against the current webhook secret and,
+     * during a rotation, the previous one
+     */
+    public boolean verifyWebhookSignature(byte[] payload, String signature) {
+        return paystackConfigHolder.current().verifySignature(payload, signature);
+    }
+    
     /**
      * Get current environment
      */
     public String getCurrentEnvironment() {
-        return paystackProperties.getActiveEnv();
+        return paystackConfigHolder.current().getEnvironment();
     }
     
     /**
      * Check if running in production
      */
     public boolean isProduction() {
-        return paystackProperties.isProduction();
+        return paystackConfigHolder.current().isProduction();
     }
     
     // Helper methods
     
-    private HttpHeaders createHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(paystackProperties.getActiveConfig().getSecretKey());
-        return headers;
+    /**
+     * Keep an audit copy of an outbound request, with card credentials and
+     * account numbers redacted; never fails the call
+     */
+    private void journalRequest(String reference, HttpMethod method, String url, Object body) {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        try {
+            byte[] line = (method + " " + url + "\n").getBytes(StandardCharsets.UTF_8);
+            byte[] json = body != null
+                    ? objectMapper.writeValueAsBytes(redact(objectMapper.valueToTree(body)))
+                    : new byte[0];
+            byte[] payload = new byte[line.length + json.length];
+            System.arraycopy(line, 0, payload, 0, line.length);
+            System.arraycopy(json, 0, payload, line.length, json.length);
+            journal.append(RecordType.OUTBOUND_REQUEST, reference, payload);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not journal request to {}: {}", url, e.getMessage());
+        }
     }
     
-    private String generateReference() {
-        return "TXN_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    /**
+     * Webhook body as journaled, with card credentials and account numbers
+     * redacted
+     */
+    public byte[] redactForJournal(String payload) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(redact(objectMapper.readTree(payload)));
     }
     
-    private BigDecimal convertToKobo(BigDecimal amount) {
-        return amount.multiply(new BigDecimal("100"));
+    // Masks redacted fields in place at any depth, e.g. data.authorization in webhooks
+    static JsonNode redact(JsonNode body) {
+        if (body instanceof ObjectNode fields) {
+            JOURNAL_REDACTIONS.forEach((field, mask) -> {
+                JsonNode value = fields.get(field);
+                if (value != null && value.isTextual()) {
+                    fields.put(field, mask.apply(value.asText()));
+                }
+            });
+        }
+        if (body != null && body.isContainerNode()) {
+            body.forEach(PaystackService::redact);
+        }
+        return body;
     }
     
-    private String computeHmacSha512(String data, String key)
-            throws NoSuchAlgorithmException, InvalidKeyException {
-        Mac mac = Mac.getInstance("HmacSHA512");
-        SecretKeySpec secretKeySpec = new SecretKeySpec(
-                key.getBytes(StandardCharsets.UTF_8),
-                "HmacSHA512"
-        );
-        mac.init(secretKeySpec);
-        byte[] hmac = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-        return bytesToHex(hmac);
+    // Recorded by the node that owns the reference
+    private void recordVerification(VerifyTransactionResponse response) {
+        try {
+            ledgerRouter.record(response.getData());
+        } catch (Exception e) {
+            log.warn("Could not record verification for {}: {}",
+                    response.getData() != null ? response.getData().getReference() : null, e.getMessage());
+        }
     }
     
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
+    private String listUrl(PaystackSnapshot config, String path, Instant from, Instant to, int page, int perPage) {
+        UriComponentsBuilder builder = UriComponentsBuilder
+                .fromUriString(config.getBaseUrl() + path)
+                .queryParam("perPage", perPage)
+                .queryParam("page", page);
+        if (from != null) {
+            builder.queryParam("from", from.toString());
         }
-        return result.toString();
+        if (to != null) {
+            builder.queryParam("to", to.toString());
+        }
+        return builder.toUriString();
+    }
+    
+    // Bank code and masked account number, as they appear in the journaled body
+    private static String recipientKey(String bankCode, String accountNumber) {
+        String account = accountNumber != null
+                ? JOURNAL_REDACTIONS.get("account_number").apply(accountNumber)
+                : null;
+        return "RECIPIENT_" + bankCode + "_" + account;
+    }
+    
+    private String generateReference() {
+        return generateReference("TXN_");
+    }
+    
+    private String generateReference(String prefix) {
+        return prefix + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    }
+    
+    private BigDecimal convertToKobo(BigDecimal amount) {
+        return amount.multiply(new BigDecimal("100"));
     }
 }
@@ -0,0 +1,250 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.cluster.ClusterMembership;
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.dto.ListMeta;
+import com.payment.paystack.dto.TransactionListResponse;
+import com.payment.paystack.dto.TransferListResponse;
+import com.payment.paystack.dto.TransferListResponse.TransferListItem;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.entity.SyncCursor;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import com.payment.paystack.event.TransferFinalizedEvent;
+import com.payment.paystack.repository.SyncCursorRepository;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.repository.TransferRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental sync of Paystack transaction and transfer listings into the
+ * local store.
+ *
+ * Paystack lists newest first, so each run fixes an upper bound ("to") and
+ * walks pages from the oldest to the newest. Every page is upserted together
+ * with the cursor in one database transaction, so a crashed run resumes from
+ * the last stored page instead of re-reading everything.
+ *
+ * Each run starts a lookback window before the cursor, so rows that were
+ * pending last time are read again and stored once their status changes;
+ * rows whose status is unchanged are not written. Rows without a creation
+ * time cannot be placed against the cursor: they are compared and stored
+ * like the rest but never move it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaystackSyncService {
+    
+    public static final String TRANSACTIONS = "transactions";
+    public static final String TRANSFERS = "transfers";
+    private static final String PARTITION_KEY = "sync";
+    
+    private final PaystackService paystackService;
+    private final PaystackProperties paystackProperties;
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final TransferRecordRepository transferRecordRepository;
+    private final SyncCursorRepository syncCursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterMembership clusterMembership;
+    private final TransactionLedger transactionLedger;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    /**
+     * Scheduled sync runs only on the node that owns the sync partition
+     */
+    @Scheduled(fixedDelayString = "${paystack.sync.interval:PT5M}")
+    public void scheduledSync() {
+        if (paystackProperties.getSync().isEnabled() && clusterMembership.isLocal(PARTITION_KEY)) {
+            syncAll();
+        }
+    }
+    
+    /**
+     * Sync transactions and transfers.
+     *
+     * @return rows stored per listing, or empty if a sync is already running
+     */
+    public Optional<Map<String, Integer>> syncAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Sync already in progress, skipping");
+            return Optional.empty();
+        }
+        
+        try {
+            Map<String, Integer> stored = new LinkedHashMap<>();
+            stored.put(TRANSACTIONS, syncTransactions());
+            stored.put(TRANSFERS, syncTransfers());
+            return Optional.of(stored);
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private int syncTransactions() {
+        return sync(TRANSACTIONS,
+                (from, to, page, perPage) -> {
+                    TransactionListResponse response = paystackService.listTransactions(from, to, page, perPage);
+                    return new Page<>(response.getData(), response.getMeta());
+                },
+                data -> TransactionRecord.parseInstant(data.getCreatedAt()),
+                TransactionVerificationData::getId,
+                this::upsertTransactions,
+                references -> references.forEach(transactionLedger::evict));
+    }
+    
+    private int syncTransfers() {
+        return sync(TRANSFERS,
+                (from, to, page, perPage) -> {
+                    TransferListResponse response = paystackService.listTransfers(from, to, page, perPage);
+                    return new Page<>(response.getData(), response.getMeta());
+                },
+                item -> TransactionRecord.parseInstant(item.getCreatedAt()),
+                TransferListItem::getId,
+                this::upsertTransfers,
+                transferCodes -> { }); // transfers are not cached
+    }
+    
+    private <T> int sync(String name,
+                         PageFetcher<T> fetcher,
+                         Function<T, Instant> createdAt,
+                         Function<T, Long> id,
+                         Function<List<T>, List<String>> upsert,
+                         Consumer<List<String>> committed) {
+        
+        SyncCursor cursor = syncCursorRepository.findById(name).orElseGet(() -> new SyncCursor(name));
+        Instant from = cursor.getLastCreatedAt() != null
+                ? cursor.getLastCreatedAt().minus(paystackProperties.getSync().getLookback())
+                : null;
+        Instant to = Instant.now();
+        int perPage = paystackProperties.getSync().getPerPage();
+        
+        Page<T> first = fetcher.fetch(from, to, 1, perPage);
+        int pageCount = first.pageCount();
+        Comparator<T> order = Comparator
+                .comparing(createdAt, Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+                .thenComparing(id, Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+        
+        int stored = 0;
+        for (int page = pageCount; page >= 1; page--) {
+            Page<T> current = page == 1 ? first : fetcher.fetch(from, to, page, perPage);
+            List<T> items = current.items().stream().sorted(order).toList();
+            if (items.isEmpty()) {
+                continue;
+            }
+            
+            T newest = items.get(items.size() - 1); // null creation times sort first
+            Instant newestCreatedAt = createdAt.apply(newest);
+            List<String> written = transactionTemplate.execute(status -> {
+                List<String> keys = upsert.apply(items);
+                if (newestCreatedAt != null && cursor.isBefore(newestCreatedAt, id.apply(newest))) {
+                    cursor.advance(newestCreatedAt, id.apply(newest));
+                    syncCursorRepository.save(cursor);
+                }
+                return keys;
+            });
+            committed.accept(written);
+            stored += written.size();
+        }
+        
+        log.info("Synced {} {} up to {}", stored, name, cursor.getLastCreatedAt());
+        return stored;
+    }
+    
+    // Rows are locked like the ledger's own writes, so a webhook or verify
+    // for the same reference cannot publish the same change a second time.
+    // Returns the references written, i.e. new rows and changed statuses
+    private List<String> upsertTransactions(List<TransactionVerificationData> items) {
+        List<TransactionRecord> records = items.stream()
+                .filter(data -> data.getReference() != null)
+                .map(TransactionRecord::from)
+                .toList();
+        // Load existing rows first so the merges below don't select one by one
+        Map<String, TransactionRecord> stored = transactionRecordRepository
+                .findAllForUpdate(records.stream().map(TransactionRecord::getReference).toList())
+                .stream()
+                .collect(Collectors.toMap(TransactionRecord::getReference, Function.identity()));
+        
+        List<TransactionRecord> changed = new ArrayList<>();
+        List<TransactionFinalizedEvent> events = new ArrayList<>();
+        for (TransactionRecord record : records) {
+            TransactionRecord before = stored.get(record.getReference());
+            if (before != null && Objects.equals(record.getStatus(), before.getStatus())) {
+                continue;
+            }
+            record.setRevision(TransactionLedger.nextRevision(before != null ? before.getRevision() : null));
+            changed.add(record);
+            if (TransactionLedger.isFinal(record.getStatus())) {
+                events.add(new TransactionFinalizedEvent(record, TransactionLedger.previousOf(before)));
+            }
+        }
+        if (!changed.isEmpty()) {
+            transactionRecordRepository.saveAll(changed);
+        }
+        events.forEach(eventPublisher::publishEvent);
+        return changed.stream().map(TransactionRecord::getReference).toList();
+    }
+    
+    private List<String> upsertTransfers(List<TransferListItem> items) {
+        List<TransferRecord> records = items.stream()
+                .filter(item -> item.getId() != null)
+                .map(TransferRecord::from)
+                .toList();
+        Map<Long, TransferRecord> stored = transferRecordRepository
+                .findAllForUpdate(records.stream().map(TransferRecord::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(TransferRecord::getId, Function.identity()));
+        
+        List<TransferRecord> changed = new ArrayList<>();
+        List<TransferFinalizedEvent> events = new ArrayList<>();
+        for (TransferRecord record : records) {
+            TransferRecord before = stored.get(record.getId());
+            if (before != null && Objects.equals(record.getStatus(), before.getStatus())) {
+                continue;
+            }
+            record.setRevision(TransactionLedger.nextRevision(before != null ? before.getRevision() : null));
+            changed.add(record);
+            if (TransactionLedger.isFinal(record.getStatus())) {
+                events.add(new TransferFinalizedEvent(record, TransactionLedger.previousOf(before)));
+            }
+        }
+        if (!changed.isEmpty()) {
+            transferRecordRepository.saveAll(changed);
+        }
+        events.forEach(eventPublisher::publishEvent);
+        return changed.stream().map(TransferRecord::getTransferCode).toList();
+    }
+    
+    @FunctionalInterface
+    private interface PageFetcher<T> {
+        Page<T> fetch(Instant from, Instant to, int page, int perPage);
+    }
+    
+    private record Page<T>(List<T> items, int pageCount) {
+        
+        Page(List<T> items, ListMeta meta) {
+            this(items != null ? items.stream().filter(Objects::nonNull).toList() : List.of(),
+                    meta != null && meta.getPageCount() != null ? Math.max(1, meta.getPageCount()) : 1);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.payment.paystack.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained count and amount totals, per currency.
+ *
+ * Every final status is counted by status. Successful ones are also counted
+ * as settled totals by currency, channel and hour. Reading is proportional
+ * to the number of buckets, never to the number of transactions.
+ */
+class Rollup {
+    
+    private static final String SUCCESS = "success";
+    private static final String UNKNOWN = "unknown";
+    
+    private final ConcurrentMap<String, Totals> byCurrency = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Totals>> byChannel = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Totals>> byStatus = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<Instant, Totals>> byHour = new ConcurrentHashMap<>();
+    private volatile Instant prunedBefore = Instant.MIN; // hours before this are no longer kept
+    
+    /**
+     * Count one final state (sign 1), or take back one counted earlier
+     * (sign -1) with the same values it was counted with
+     */
+    void record(String currency, String channel, String status, Instant at, BigDecimal amount, int sign) {
+        String ccy = currency != null ? currency : UNKNOWN;
+        long value = amount != null ? amount.longValue() : 0L;
+        Instant hour = (at != null ? at : Instant.now()).truncatedTo(ChronoUnit.HOURS);
+        apply(ccy, channel, status, hour, value, sign);
+    }
+    
+    /**
+     * Drop hourly buckets older than the cutoff. Later changes to those hours
+     * are not counted by hour, so a reversal cannot bring one back negative.
+     */
+    void pruneHoursBefore(Instant cutoff) {
+        if (cutoff.isAfter(prunedBefore)) {
+            prunedBefore = cutoff;
+        }
+        byHour.values().forEach(hours -> hours.keySet().removeIf(hour -> hour.isBefore(cutoff)));
+    }
+    
+    Map<String, Object> snapshot() {
+        return Map.of(
+                "by_currency", totals(byCurrency),
+                "by_channel", nested(byChannel),
+                "by_status", nested(byStatus),
+                "by_hour", nested(byHour));
+    }
+    
+    private void apply(String currency, String channel, String status, Instant hour, long amount, int sign) {
+        bucket(byStatus, currency, status).add(sign, amount);
+        if (SUCCESS.equals(status)) {
+            byCurrency.computeIfAbsent(currency, key -> new Totals()).add(sign, amount);
+            if (channel != null) {
+                bucket(byChannel, currency, channel).add(sign, amount);
+            }
+            if (!hour.isBefore(prunedBefore)) {
+                bucket(byHour, currency, hour).add(sign, amount);
+            }
+        }
+    }
+    
+    private static <K> Totals bucket(ConcurrentMap<String, ConcurrentMap<K, Totals>> map, String currency, K key) {
+        return map.computeIfAbsent(currency, ccy -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new Totals());
+    }
+    
+    private static <K> Map<String, Map<String, Long>> totals(Map<K, Totals> map) {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        map.forEach((key, totals) -> result.put(key.toString(), totals.snapshot()));
+        return result;
+    }
+    
+    private static <K> Map<String, Map<String, Map<String, Long>>> nested(
+            Map<String, ? extends Map<K, Totals>> map) {
+        Map<String, Map<String, Map<String, Long>>> result = new TreeMap<>();
+        map.forEach((currency, buckets) -> result.put(currency, totals(buckets)));
+        return result;
+    }
+    
+    private static final class Totals {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder amount = new LongAdder();
+        
+        void add(int sign, long value) {
+            count.add(sign);
+            amount.add(sign * value);
+        }
+        
+        Map<String, Long> snapshot() {
+            return Map.of("count", count.sum(), "amount", amount.sum());
+        }
+    }
+}
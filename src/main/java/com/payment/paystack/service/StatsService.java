@@ -0,0 +1,249 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import com.payment.paystack.event.TransferFinalizedEvent;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.repository.TransferRecordRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Revenue and payout rollups, updated as final states are recorded and
+ * rebuilt from the local store on startup or on demand.
+ */
+@Slf4j
+@Service
+public class StatsService {
+    
+    // Longest a ledger write may take from stamping a row to publishing its
+    // event; rows stamped earlier are assumed settled when a rebuild starts
+    private static final Duration IN_FLIGHT_MARGIN = Duration.ofMinutes(1);
+    
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final TransferRecordRepository transferRecordRepository;
+    private final PaystackProperties paystackProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final AtomicReference<Rollups> current = new AtomicReference<>(new Rollups());
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Rebuild rebuilding;
+    
+    public StatsService(TransactionRecordRepository transactionRecordRepository,
+                        TransferRecordRepository transferRecordRepository,
+                        PaystackProperties paystackProperties,
+                        PlatformTransactionManager transactionManager,
+                        EntityManager entityManager) {
+        this.transactionRecordRepository = transactionRecordRepository;
+        this.transferRecordRepository = transferRecordRepository;
+        this.paystackProperties = paystackProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionFinalized(TransactionFinalizedEvent event) {
+        apply(event);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransferFinalized(TransferFinalizedEvent event) {
+        apply(event);
+    }
+    
+    /**
+     * Current totals. Cost depends on the number of buckets only.
+     */
+    public Map<String, Object> getStats() {
+        Rollups rollups = current.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revenue", rollups.revenue.snapshot());
+        stats.put("payouts", rollups.payouts.snapshot());
+        stats.put("rebuilt_at", rollups.rebuiltAt);
+        return stats;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+    
+    /**
+     * Recompute all rollups from the local store and swap them in.
+     *
+     * States recorded while the store is scanned are buffered and replayed
+     * onto the new rollups before the swap. A row the scan read may or may
+     * not include a buffered change, so the scan remembers the revision of
+     * recently written rows and replay skips changes at or below it.
+     */
+    public synchronized void rebuild() {
+        Rebuild rebuild = new Rebuild(Instant.now().minus(IN_FLIGHT_MARGIN));
+        rebuilding = rebuild;
+        try {
+            Rollups rollups = new Rollups();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TransactionRecord> rows = transactionRecordRepository.streamAll()) {
+                    rows.forEach(row -> {
+                        if (TransactionLedger.isFinal(row.getStatus())) {
+                            record(rollups, row, 1);
+                        }
+                        if (isAfter(row.getUpdatedAt(), rebuild.since)) {
+                            rebuild.transactions.put(row.getReference(), revisionOf(row.getRevision()));
+                        }
+                        entityManager.detach(row);
+                    });
+                }
+                try (Stream<TransferRecord> rows = transferRecordRepository.streamAll()) {
+                    rows.forEach(row -> {
+                        if (TransactionLedger.isFinal(row.getStatus())) {
+                            record(rollups, row, 1);
+                        }
+                        if (isAfter(row.getSyncedAt(), rebuild.since)) {
+                            rebuild.transfers.put(row.getId(), revisionOf(row.getRevision()));
+                        }
+                        entityManager.detach(row);
+                    });
+                }
+            });
+            
+            rebuild.replay(rollups);
+            Instant cutoff = hourlyCutoff();
+            rollups.revenue.pruneHoursBefore(cutoff);
+            rollups.payouts.pruneHoursBefore(cutoff);
+            
+            // Whatever arrived since the replay is applied with new events held back
+            swapLock.writeLock().lock();
+            try {
+                rebuild.replay(rollups);
+                current.set(rollups);
+                rebuilding = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.info("Rebuilt revenue and payout rollups");
+        } finally {
+            rebuilding = null;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${paystack.stats.prune-interval:PT10M}")
+    public void pruneHourly() {
+        Rollups rollups = current.get();
+        Instant cutoff = hourlyCutoff();
+        rollups.revenue.pruneHoursBefore(cutoff);
+        rollups.payouts.pruneHoursBefore(cutoff);
+    }
+    
+    private void apply(Object event) {
+        swapLock.readLock().lock();
+        try {
+            Rebuild rebuild = rebuilding;
+            if (rebuild != null) {
+                rebuild.buffer.add(event);
+            }
+            count(current.get(), event);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+    
+    // The previous state is taken back with the values it was counted with,
+    // so a transfer whose updatedAt moved still leaves its old hour bucket
+    private static void count(Rollups rollups, Object event) {
+        if (event instanceof TransactionFinalizedEvent finalized) {
+            if (finalized.previous() != null) {
+                record(rollups, finalized.previous(), -1);
+            }
+            record(rollups, finalized.transaction(), 1);
+        } else if (event instanceof TransferFinalizedEvent finalized) {
+            if (finalized.previous() != null) {
+                record(rollups, finalized.previous(), -1);
+            }
+            record(rollups, finalized.transfer(), 1);
+        }
+    }
+    
+    private static void record(Rollups rollups, TransactionRecord transaction, int sign) {
+        rollups.revenue.record(transaction.getCurrency(), transaction.getChannel(), transaction.getStatus(),
+                transaction.getPaidAt() != null ? transaction.getPaidAt() : transaction.getCreatedAt(),
+                transaction.getAmount(), sign);
+    }
+    
+    private static void record(Rollups rollups, TransferRecord transfer, int sign) {
+        rollups.payouts.record(transfer.getCurrency(), null, transfer.getStatus(),
+                transfer.getUpdatedAt() != null ? transfer.getUpdatedAt() : transfer.getCreatedAt(),
+                transfer.getAmount(), sign);
+    }
+    
+    private static boolean isAfter(Instant stored, Instant since) {
+        return stored == null || !stored.isBefore(since);
+    }
+    
+    private static long revisionOf(Long revision) {
+        return revision != null ? revision : 0;
+    }
+    
+    private Instant hourlyCutoff() {
+        return Instant.now().minus(paystackProperties.getStats().getHourlyRetention());
+    }
+    
+    private static final class Rollups {
+        private final Rollup revenue = new Rollup();
+        private final Rollup payouts = new Rollup();
+        private final Instant rebuiltAt = Instant.now();
+    }
+    
+    private static final class Rebuild {
+        private final Instant since; // rows stored after this may race the scan
+        private final Queue<Object> buffer = new ConcurrentLinkedQueue<>();
+        private final Map<String, Long> transactions = new HashMap<>(); // scanned revision by reference
+        private final Map<Long, Long> transfers = new HashMap<>(); // scanned revision by id
+        
+        Rebuild(Instant since) {
+            this.since = since;
+        }
+        
+        void replay(Rollups rollups) {
+            Object event;
+            while ((event = buffer.poll()) != null) {
+                if (!isScanned(event)) {
+                    count(rollups, event);
+                }
+            }
+        }
+        
+        private boolean isScanned(Object event) {
+            if (event instanceof TransactionFinalizedEvent finalized) {
+                Long scanned = transactions.get(finalized.transaction().getReference());
+                return scanned != null && revisionOf(finalized.transaction().getRevision()) <= scanned;
+            }
+            if (event instanceof TransferFinalizedEvent finalized) {
+                Long scanned = transfers.get(finalized.transfer().getId());
+                return scanned != null && revisionOf(finalized.transfer().getRevision()) <= scanned;
+            }
+            return false;
+        }
+    }
+}
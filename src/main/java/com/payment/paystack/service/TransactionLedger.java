@@ -0,0 +1,216 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import com.payment.paystack.event.TransferFinalizedEvent;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.repository.TransferRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Local record of transactions and transfers whose outcome is final.
+ * Transaction lookups go through a small LRU cache in front of the database.
+ * Status changes are made under a row lock and published as events for
+ * downstream consumers once they commit.
+ */
+@Slf4j
+@Service
+public class TransactionLedger {
+    
+    private static final Set<String> FINAL_STATUSES = Set.of("success", "failed", "reversed");
+    
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final TransferRecordRepository transferRecordRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, TransactionVerificationData> finalStates;
+    
+    public TransactionLedger(TransactionRecordRepository transactionRecordRepository,
+                             TransferRecordRepository transferRecordRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             TransactionTemplate transactionTemplate,
+                             PaystackProperties paystackProperties) {
+        this.transactionRecordRepository = transactionRecordRepository;
+        this.transferRecordRepository = transferRecordRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        int cacheSize = paystackProperties.getLedger().getCacheSize();
+        this.finalStates = Collections.synchronizedMap(new LinkedHashMap<String, TransactionVerificationData>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TransactionVerificationData> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+    
+    /**
+     * Check if a Paystack transaction status can no longer change
+     */
+    public static boolean isFinal(String status) {
+        return status != null && FINAL_STATUSES.contains(status);
+    }
+    
+    /**
+     * Look up a final transaction state, from cache first and then the database
+     */
+    public Optional<TransactionVerificationData> findFinal(String reference) {
+        TransactionVerificationData cached = finalStates.get(reference);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        Optional<TransactionVerificationData> stored = transactionRecordRepository.findById(reference)
+                .filter(record -> isFinal(record.getStatus()))
+                .map(TransactionRecord::toVerificationData);
+        stored.ifPresent(data -> finalStates.put(reference, data));
+        return stored;
+    }
+    
+    /**
+     * Look up the final states of many transactions, with a single database
+     * query for those not in the cache
+     */
+    public Map<String, TransactionVerificationData> findAllFinal(Collection<String> references) {
+        Map<String, TransactionVerificationData> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String reference : references) {
+            TransactionVerificationData cached = finalStates.get(reference);
+            if (cached != null) {
+                found.put(reference, cached);
+            } else {
+                missing.add(reference);
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            for (TransactionRecord record : transactionRecordRepository.findAllById(missing)) {
+                if (isFinal(record.getStatus())) {
+                    TransactionVerificationData data = record.toVerificationData();
+                    finalStates.put(record.getReference(), data);
+                    found.put(record.getReference(), data);
+                }
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Drop the cached state of a transaction written elsewhere, e.g. by
+     * another cluster member or the sync; the next lookup reads the store
+     */
+    public void evict(String reference) {
+        finalStates.remove(reference);
+    }
+    
+    /**
+     * Record a transaction state. Only final states are kept.
+     *
+     * @return true if this changed the recorded status of the transaction
+     */
+    public boolean record(TransactionVerificationData data) {
+        if (data == null || data.getReference() == null || !isFinal(data.getStatus())) {
+            return false;
+        }
+        
+        TransactionVerificationData cached = finalStates.get(data.getReference());
+        if (cached != null && data.getStatus().equals(cached.getStatus())) {
+            return false;
+        }
+        
+        TransactionRecord record = TransactionRecord.from(data);
+        boolean changed = inTransaction(() -> transition(record));
+        // Cached only once stored, so a failed save leaves no stale entry
+        finalStates.put(data.getReference(), data);
+        return changed;
+    }
+    
+    /**
+     * Record a transfer state. Only final states are kept.
+     *
+     * @return true if this changed the recorded status of the transfer
+     */
+    public boolean recordTransfer(TransferRecord transfer) {
+        if (transfer == null || transfer.getId() == null || !isFinal(transfer.getStatus())) {
+            return false;
+        }
+        return inTransaction(() -> transition(transfer));
+    }
+    
+    // The row stays locked until commit, so of two concurrent writers only
+    // the first sees a change and publishes it
+    private boolean transition(TransactionRecord record) {
+        Optional<TransactionRecord> stored = transactionRecordRepository.findForUpdate(record.getReference());
+        if (stored.isPresent() && record.getStatus().equals(stored.get().getStatus())) {
+            return false;
+        }
+        
+        TransactionRecord previous = previousOf(stored.orElse(null));
+        record.setRevision(nextRevision(stored.map(TransactionRecord::getRevision).orElse(null)));
+        TransactionRecord saved = transactionRecordRepository.saveAndFlush(record);
+        log.info("Recorded final status {} for transaction {}", record.getStatus(), record.getReference());
+        eventPublisher.publishEvent(new TransactionFinalizedEvent(saved, previous));
+        return true;
+    }
+    
+    private boolean transition(TransferRecord transfer) {
+        Optional<TransferRecord> stored = transferRecordRepository.findForUpdate(transfer.getId());
+        if (stored.isPresent() && transfer.getStatus().equals(stored.get().getStatus())) {
+            return false;
+        }
+        
+        TransferRecord previous = previousOf(stored.orElse(null));
+        transfer.setRevision(nextRevision(stored.map(TransferRecord::getRevision).orElse(null)));
+        TransferRecord saved = transferRecordRepository.saveAndFlush(transfer);
+        log.info("Recorded final status {} for transfer {}", transfer.getStatus(), transfer.getTransferCode());
+        eventPublisher.publishEvent(new TransferFinalizedEvent(saved, previous));
+        return true;
+    }
+    
+    /**
+     * Run a status change in its own transaction. Events published inside
+     * reach listeners only if it commits. Runs once more if another writer
+     * inserted the same row first; the retry then finds it and waits on its lock.
+     */
+    private boolean inTransaction(Supplier<Boolean> change) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> change.get()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Concurrent insert of the same ledger row, retrying: {}", e.getMessage());
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> change.get()));
+        }
+    }
+    
+    /**
+     * Copy of a stored transaction as it was counted, or null if its status
+     * was not final
+     */
+    static TransactionRecord previousOf(TransactionRecord stored) {
+        return stored != null && isFinal(stored.getStatus()) ? stored.toBuilder().build() : null;
+    }
+    
+    static TransferRecord previousOf(TransferRecord stored) {
+        return stored != null && isFinal(stored.getStatus()) ? stored.toBuilder().build() : null;
+    }
+    
+    static long nextRevision(Long revision) {
+        return revision != null ? revision + 1 : 1;
+    }
+}
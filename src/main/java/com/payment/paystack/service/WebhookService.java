@@ -0,0 +1,90 @@
+package com.payment.paystack.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.dto.TransferListResponse.TransferListItem;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.dto.WebhookEvent;
+import com.payment.paystack.entity.SavedAuthorization;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.repository.SavedAuthorizationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebhookService {
+    
+    private final ObjectMapper objectMapper;
+    private final TransactionLedger transactionLedger;
+    private final SavedAuthorizationRepository savedAuthorizationRepository;
+    
+    /**
+     * Parse a webhook payload
+     */
+    public WebhookEvent parse(String payload) throws JsonProcessingException {
+        return objectMapper.readValue(payload, WebhookEvent.class);
+    }
+    
+    /**
+     * Apply a verified webhook event to the ledger
+     */
+    public void process(WebhookEvent event) {
+        if (event.getEvent() == null || event.getData() == null) {
+            return;
+        }
+        
+        switch (event.getEvent()) {
+            case "charge.success" -> {
+                transactionLedger.record(
+                        objectMapper.convertValue(event.getData(), TransactionVerificationData.class));
+                saveAuthorization(event.getData());
+            }
+            case "transfer.success", "transfer.failed", "transfer.reversed" -> transactionLedger.recordTransfer(
+                    TransferRecord.from(objectMapper.convertValue(event.getData(), TransferListItem.class)));
+            default -> log.debug("Ignoring webhook event {}", event.getEvent());
+        }
+    }
+    
+    /**
+     * Keep reusable card authorizations so subscriptions can charge them later
+     */
+    private void saveAuthorization(Map<String, Object> data) {
+        if (!(data.get("authorization") instanceof Map<?, ?> authorization)
+                || !Boolean.TRUE.equals(authorization.get("reusable"))) {
+            return;
+        }
+        String email = data.get("customer") instanceof Map<?, ?> customer && customer.get("email") != null
+                ? customer.get("email").toString()
+                : null;
+        SavedAuthorization saved = SavedAuthorization.from(authorization, email);
+        if (saved.getAuthorizationCode() == null || email == null) {
+            return;
+        }
+        try {
+            savedAuthorizationRepository.save(saved);
+        } catch (Exception e) {
+            log.warn("Could not save authorization for {}: {}", email, e.getMessage());
+        }
+    }
+    
+    /**
+     * Key that decides which node processes the event: the transaction or
+     * transfer reference
+     */
+    public static String partitionKey(WebhookEvent event) {
+        if (event.getData() != null) {
+            for (String field : new String[]{"reference", "transfer_code"}) {
+                Object value = event.getData().get(field);
+                if (value != null) {
+                    return value.toString();
+                }
+            }
+        }
+        return String.valueOf(event.getEvent());
+    }
+}
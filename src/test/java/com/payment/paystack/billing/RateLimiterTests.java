@@ -0,0 +1,62 @@
+package com.payment.paystack.billing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTests {
+    
+    @Test
+    void spacesCallsEvenly() throws InterruptedException {
+        long start = System.nanoTime();
+        RateLimiter limiter = new RateLimiter(100); // one every 10ms
+        
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire();
+        }
+        
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+    
+    @Test
+    void sharesTheRateBetweenThreads() throws InterruptedException {
+        long start = System.nanoTime();
+        RateLimiter limiter = new RateLimiter(200); // one every 5ms
+        
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    for (int i = 0; i < 10; i++) {
+                        limiter.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // 40 calls: the first is free, the other 39 wait their turn
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(195));
+    }
+    
+    @Test
+    void doesNotBankUnusedPermits() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(10); // one every 100ms
+        limiter.acquire();
+        Thread.sleep(300);
+        
+        long start = System.nanoTime();
+        limiter.acquire();
+        limiter.acquire();
+        
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+}
@@ -0,0 +1,219 @@
+package com.payment.paystack.billing;
+
+import com.payment.paystack.cluster.ClusterMembership;
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.dto.VerifyTransactionResponse;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.entity.Subscription;
+import com.payment.paystack.entity.SubscriptionStatus;
+import com.payment.paystack.repository.SubscriptionRepository;
+import com.payment.paystack.repository.SubscriptionRepository.DueSubscription;
+import com.payment.paystack.service.PaystackService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecurringBillingServiceTests {
+    
+    private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+    private final PaystackService paystackService = mock(PaystackService.class);
+    private final ClusterMembership clusterMembership = mock(ClusterMembership.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ExecutorService executor = mock(ExecutorService.class);
+    private final List<Runnable> drains = new ArrayList<>();
+    private final PaystackProperties paystackProperties = new PaystackProperties();
+    private RecurringBillingService service;
+    
+    @BeforeEach
+    void setUp() {
+        paystackProperties.getBilling().setEnabled(true);
+        paystackProperties.getBilling().setRateLimit(1000);
+        when(clusterMembership.isLocal(anyString())).thenReturn(true);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(subscriptionRepository.save(any(Subscription.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> drains.add(invocation.getArgument(0))).when(executor).execute(any());
+        service = new RecurringBillingService(subscriptionRepository, paystackService, paystackProperties,
+                clusterMembership, transactionTemplate, executor);
+    }
+    
+    @Test
+    void referenceIsStablePerCycleAndNewPerDecline() {
+        Subscription subscription = Subscription.builder().id(7L).chargeCount(3).build();
+        assertThat(RecurringBillingService.referenceOf(subscription)).isEqualTo("SUB_7_3");
+        
+        subscription.setFailedAttempts(2);
+        assertThat(RecurringBillingService.referenceOf(subscription)).isEqualTo("SUB_7_3_R2");
+    }
+    
+    @Test
+    void declinedChargesFollowTheDunningScheduleThenCancel() throws InterruptedException {
+        Subscription subscription = due(SubscriptionStatus.ACTIVE, 0);
+        chargesReturn("failed");
+        
+        List<Duration> dunning = paystackProperties.getBilling().getDunningSchedule();
+        for (int attempt = 1; attempt <= dunning.size(); attempt++) {
+            service.chargeOne(subscription);
+            
+            assertThat(subscription.getStatus()).isEqualTo(SubscriptionStatus.PAST_DUE);
+            assertThat(subscription.getFailedAttempts()).isEqualTo(attempt);
+            assertThat(subscription.getNextChargeAt())
+                    .isCloseTo(Instant.now().plus(dunning.get(attempt - 1)), within(Duration.ofSeconds(5)));
+            subscription.setNextChargeAt(Instant.now().minusSeconds(1)); // the retry falls due
+        }
+        
+        service.chargeOne(subscription);
+        
+        assertThat(subscription.getStatus()).isEqualTo(SubscriptionStatus.CANCELLED);
+        ArgumentCaptor<String> references = ArgumentCaptor.forClass(String.class);
+        verify(paystackService, times(dunning.size() + 1))
+                .chargeAuthorization(anyString(), any(), anyString(), anyString(), references.capture());
+        assertThat(references.getAllValues()).containsExactly("SUB_7_0", "SUB_7_0_R1", "SUB_7_0_R2", "SUB_7_0_R3");
+    }
+    
+    @Test
+    void successfulChargeEndsDunningAndStartsTheNextCycle() throws InterruptedException {
+        Subscription subscription = due(SubscriptionStatus.PAST_DUE, 2);
+        Instant dueAt = subscription.getNextChargeAt();
+        chargesReturn("success");
+        
+        service.chargeOne(subscription);
+        
+        assertThat(subscription.getStatus()).isEqualTo(SubscriptionStatus.ACTIVE);
+        assertThat(subscription.getFailedAttempts()).isZero();
+        assertThat(subscription.getChargeCount()).isEqualTo(1);
+        assertThat(subscription.getLastChargeReference()).isEqualTo("SUB_7_0_R2");
+        assertThat(subscription.getNextChargeAt()).isEqualTo(dueAt.plus(Duration.ofDays(30)));
+    }
+    
+    @Test
+    void loaderPicksUpOverdueSubscriptionsThatLeftTheWheel() {
+        dueRows(7L);
+        
+        service.loadDue();
+        service.loadDue();
+        assertThat(service.getStats()).containsEntry("scheduled", 1);
+        
+        // Fired, but never charged: the row could not be read back
+        service.tick();
+        drains.forEach(Runnable::run);
+        assertThat(service.getStats()).containsEntry("scheduled", 0);
+        
+        service.loadDue();
+        assertThat(service.getStats()).containsEntry("scheduled", 1);
+    }
+    
+    @Test
+    void loaderSkipsSubscriptionsStillQueuedFromTheLastLoad() {
+        Long[] backlog = LongStream.rangeClosed(1, 40).boxed().toArray(Long[]::new);
+        dueRows(backlog);
+        
+        service.loadDue();
+        service.tick(); // fired into the partitions, none charged before the next load
+        service.loadDue();
+        assertThat(service.getStats()).containsEntry("scheduled", 0);
+        
+        drains.forEach(Runnable::run);
+        ArgumentCaptor<List<Long>> loaded = ArgumentCaptor.captor();
+        verify(subscriptionRepository, times(drains.size())).findAllById(loaded.capture());
+        assertThat(loaded.getAllValues().stream().flatMap(List::stream)).containsExactlyInAnyOrder(backlog);
+        
+        service.loadDue();
+        assertThat(service.getStats()).containsEntry("scheduled", backlog.length);
+    }
+    
+    @Test
+    void eachMemberSchedulesOnlyTheSubscriptionsItOwns() {
+        Long[] due = LongStream.rangeClosed(1, 40).boxed().toArray(Long[]::new);
+        dueRows(due);
+        RecurringBillingService first = memberService("http://node-a:8080");
+        RecurringBillingService second = memberService("http://node-b:8080");
+        
+        first.loadDue();
+        second.loadDue();
+        
+        int onFirst = (int) first.getStats().get("scheduled");
+        int onSecond = (int) second.getStats().get("scheduled");
+        assertThat(onFirst).isPositive();
+        assertThat(onSecond).isPositive();
+        assertThat(onFirst + onSecond).isEqualTo(due.length);
+    }
+    
+    private Subscription due(SubscriptionStatus status, int failedAttempts) {
+        Subscription subscription = Subscription.builder()
+                .id(7L)
+                .email("customer@example.com")
+                .authorizationCode("AUTH_test")
+                .amount(new BigDecimal("5000"))
+                .currency("NGN")
+                .intervalDays(30)
+                .status(status)
+                .failedAttempts(failedAttempts)
+                .nextChargeAt(Instant.now().minusSeconds(1))
+                .build();
+        when(subscriptionRepository.findById(7L)).thenReturn(Optional.of(subscription));
+        return subscription;
+    }
+    
+    // Both members read the same rows, as from the shared database
+    private RecurringBillingService memberService(String self) {
+        PaystackProperties properties = new PaystackProperties();
+        properties.getBilling().setEnabled(true);
+        properties.getCluster().setSelf(self);
+        properties.getCluster().setMembers(List.of("http://node-a:8080", "http://node-b:8080"));
+        return new RecurringBillingService(subscriptionRepository, paystackService, properties,
+                new ClusterMembership(properties), transactionTemplate, executor);
+    }
+    
+    private void dueRows(Long... ids) {
+        Instant overdue = Instant.now().minus(Duration.ofHours(1));
+        when(subscriptionRepository.findDue(anyCollection(), any(Instant.class), anyLong(), any(Pageable.class)))
+                .thenReturn(Arrays.stream(ids).map(id -> dueRow(id, overdue)).toList());
+    }
+    
+    private void chargesReturn(String status) {
+        TransactionVerificationData data = new TransactionVerificationData();
+        data.setStatus(status);
+        when(paystackService.chargeAuthorization(anyString(), any(), anyString(), anyString(), anyString()))
+                .thenReturn(new VerifyTransactionResponse(true, "Charge attempted", data));
+    }
+    
+    private static DueSubscription dueRow(Long id, Instant nextChargeAt) {
+        return new DueSubscription() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public Instant getNextChargeAt() {
+                return nextChargeAt;
+            }
+        };
+    }
+}
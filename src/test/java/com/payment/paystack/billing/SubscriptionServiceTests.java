@@ -0,0 +1,38 @@
+package com.payment.paystack.billing;
+
+import com.payment.paystack.entity.Subscription;
+import com.payment.paystack.entity.SubscriptionStatus;
+import com.payment.paystack.repository.SavedAuthorizationRepository;
+import com.payment.paystack.repository.SubscriptionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubscriptionServiceTests {
+    
+    private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+    private final SubscriptionService service = new SubscriptionService(subscriptionRepository,
+            mock(SavedAuthorizationRepository.class), mock(RecurringBillingService.class));
+    
+    @Test
+    void cancelIsRetriedWhenAChargeUpdatesTheSubscriptionFirst() {
+        when(subscriptionRepository.findById(7L)).thenAnswer(invocation -> Optional.of(
+                Subscription.builder().id(7L).status(SubscriptionStatus.ACTIVE).build()));
+        when(subscriptionRepository.save(any(Subscription.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Subscription.class, 7L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Optional<Subscription> cancelled = service.cancel(7L);
+        
+        assertThat(cancelled).map(Subscription::getStatus).contains(SubscriptionStatus.CANCELLED);
+        verify(subscriptionRepository, times(2)).findById(7L);
+    }
+}
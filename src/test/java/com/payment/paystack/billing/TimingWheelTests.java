@@ -0,0 +1,74 @@
+package com.payment.paystack.billing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+    
+    private static final Instant START = Instant.ofEpochSecond(1_000_000);
+    
+    private final TimingWheel wheel = new TimingWheel(Duration.ofSeconds(1), 4, START);
+    
+    @Test
+    void firesIdsOnTheirTick() {
+        wheel.schedule(1, START.plusSeconds(2));
+        wheel.schedule(2, START.plusSeconds(3));
+        
+        assertThat(wheel.advance(START.plusSeconds(1))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(2))).containsExactly(1L);
+        assertThat(wheel.advance(START.plusSeconds(3))).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    void firesPastDueIdsOnTheNextAdvance() {
+        wheel.schedule(1, START.minus(Duration.ofHours(1)));
+        
+        assertThat(wheel.advance(START)).containsExactly(1L);
+    }
+    
+    @Test
+    void waitsForIdsMoreThanOneLapAhead() {
+        wheel.schedule(1, START.plusSeconds(6)); // same bucket as START + 2s
+        
+        assertThat(wheel.advance(START.plusSeconds(2))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(5))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(6))).containsExactly(1L);
+    }
+    
+    @Test
+    void firesEverythingDueWhenAdvancingMoreThanOneLap() {
+        wheel.schedule(1, START.plusSeconds(1));
+        wheel.schedule(2, START.plusSeconds(7));
+        wheel.schedule(3, START.plusSeconds(100));
+        
+        assertThat(wheel.advance(START.plusSeconds(50))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+    
+    @Test
+    void ignoresIdsWaitingOrFiredUntilReleased() {
+        assertThat(wheel.schedule(1, START.plusSeconds(1))).isTrue();
+        assertThat(wheel.schedule(1, START.plusSeconds(2))).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+        
+        assertThat(wheel.advance(START.plusSeconds(2))).containsExactly(1L);
+        assertThat(wheel.schedule(1, START.plusSeconds(3))).isFalse();
+        
+        wheel.release(1);
+        assertThat(wheel.schedule(1, START.plusSeconds(3))).isTrue();
+    }
+    
+    @Test
+    void doesNotGoBackInTime() {
+        wheel.advance(START.plusSeconds(5));
+        wheel.schedule(1, START.plusSeconds(2));
+        
+        assertThat(wheel.advance(START.plusSeconds(3))).isEmpty();
+        assertThat(wheel.advance(START.plusSeconds(6))).containsExactly(1L);
+    }
+}
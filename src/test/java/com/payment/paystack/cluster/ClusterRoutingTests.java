@@ -0,0 +1,344 @@
+package com.payment.paystack.cluster;
+
+import com.payment.paystack.PaystackApplication;
+import com.payment.paystack.config.PaystackConfigHolder;
+import com.payment.paystack.controller.ConfigController;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.service.PaymentStatusNotifier;
+import com.payment.paystack.service.StatsService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances sharing a database and a member list with a
+ * peer that always answers 500 and one that is not running.
+ */
+class ClusterRoutingTests {
+    
+    private static final String WEBHOOK_SECRET = "cluster-test-secret";
+    private static final AtomicInteger REFERENCES = new AtomicInteger();
+    private static final Map<String, Set<String>> WRITTEN_BY = new ConcurrentHashMap<>();
+    
+    private static HttpServer failingPeer;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static String urlA;
+    private static String urlB;
+    private static String urlFailing;
+    private static String urlDown;
+    
+    private final RestTemplate restTemplate = new RestTemplate();
+    
+    @BeforeAll
+    static void startCluster() throws IOException {
+        failingPeer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        failingPeer.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        failingPeer.start();
+        
+        int portA = freePort();
+        int portB = freePort();
+        urlA = "http://127.0.0.1:" + portA;
+        urlB = "http://127.0.0.1:" + portB;
+        urlFailing = "http://127.0.0.1:" + failingPeer.getAddress().getPort();
+        urlDown = "http://127.0.0.1:" + freePort();
+        
+        List<String> members = List.of(urlA, urlB, urlFailing, urlDown);
+        nodeA = start(portA, urlA, members);
+        nodeB = start(portB, urlB, members);
+    }
+    
+    @AfterAll
+    static void stopCluster() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (failingPeer != null) {
+            failingPeer.stop(0);
+        }
+    }
+    
+    @Test
+    void webhookIsProcessedByItsOwner() {
+        String reference = referenceOwnedBy(urlB);
+        
+        ResponseEntity<String> response = postWebhook(urlA, reference);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(writtenBy(urlB, reference)).isTrue();
+        assertThat(writtenBy(urlA, reference)).isFalse();
+    }
+    
+    @Test
+    void webhookIsNotProcessedLocallyOnceTheOwnerAnswered() {
+        String reference = referenceOwnedBy(urlFailing);
+        
+        ResponseEntity<String> response = postWebhook(urlA, reference);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(stored(reference)).isFalse();
+    }
+    
+    @Test
+    void webhookIsProcessedLocallyWhenTheOwnerIsDown() {
+        String reference = referenceOwnedBy(urlDown);
+        
+        ResponseEntity<String> response = postWebhook(urlA, reference);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(writtenBy(urlA, reference)).isTrue();
+    }
+    
+    @Test
+    void ledgerWriteIsRecordedByItsOwner() throws Exception {
+        String reference = referenceOwnedBy(urlB);
+        
+        nodeA.getBean(LedgerRouter.class).record(success(reference));
+        
+        assertThat(writtenBy(urlB, reference)).isTrue();
+        assertThat(writtenBy(urlA, reference)).isFalse();
+    }
+    
+    @Test
+    void ledgerWriteIsNotRecordedLocallyOnceTheOwnerAnswered() throws Exception {
+        String reference = referenceOwnedBy(urlFailing);
+        
+        nodeA.getBean(LedgerRouter.class).record(success(reference));
+        
+        assertThat(stored(reference)).isFalse();
+    }
+    
+    @Test
+    void ledgerWriteIsRecordedLocallyWhenTheOwnerIsDown() throws Exception {
+        String reference = referenceOwnedBy(urlDown);
+        
+        nodeA.getBean(LedgerRouter.class).record(success(reference));
+        
+        assertThat(writtenBy(urlA, reference)).isTrue();
+    }
+    
+    @Test
+    void forwardedLedgerWriteRequiresSignature() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(PeerClient.SIGNATURE_HEADER, "00");
+        
+        int status = statusOf(HttpMethod.POST, urlB + LedgerRouter.TRANSACTIONS_PATH,
+                new HttpEntity<>("{\"reference\":\"FORGED\",\"status\":\"success\"}", headers));
+        
+        assertThat(status).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        assertThat(stored("FORGED")).isFalse();
+    }
+    
+    @Test
+    void statusStreamOnAnotherNodeReceivesTheOwnersWrite() throws Exception {
+        String reference = referenceOwnedBy(urlB);
+        PaymentStatusNotifier notifier = nodeA.getBean(PaymentStatusNotifier.class);
+        int subscriptions = notifier.getSubscriptionCount();
+        
+        CompletableFuture<HttpResponse<String>> stream = HttpClient.newHttpClient().sendAsync(
+                HttpRequest.newBuilder(URI.create(urlA + "/api/paystack/status/" + reference + "/stream")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        await(() -> notifier.getSubscriptionCount() > subscriptions);
+        
+        assertThat(postWebhook(urlB, reference).getStatusCode()).isEqualTo(HttpStatus.OK);
+        
+        String events = stream.get(10, TimeUnit.SECONDS).body();
+        assertThat(events).contains("event:status").contains(reference).contains("success");
+    }
+    
+    @Test
+    void statsOnEveryNodeCountTheOwnersWrites() throws Exception {
+        String reference = referenceOwnedBy(urlB);
+        TransactionVerificationData data = success(reference);
+        data.setCurrency("GHS");
+        
+        nodeA.getBean(LedgerRouter.class).record(data);
+        
+        assertThat(writtenBy(urlB, reference)).isTrue();
+        await(() -> count(nodeA, "GHS") == 1 && count(nodeB, "GHS") == 1);
+    }
+    
+    @Test
+    void subscriptionCanBeCreatedOnANodeThatDidNotSaveTheCard() {
+        String reference = referenceOwnedBy(urlB);
+        String email = "subscriber-" + reference.toLowerCase() + "@example.com";
+        String payload = "{\"event\":\"charge.success\",\"data\":{\"reference\":\"" + reference
+                + "\",\"status\":\"success\",\"amount\":50000,\"currency\":\"NGN\","
+                + "\"customer\":{\"email\":\"" + email + "\"},"
+                + "\"authorization\":{\"authorization_code\":\"AUTH_" + reference + "\",\"reusable\":true}}}";
+        assertThat(sendWebhook(urlB, payload).getStatusCode()).isEqualTo(HttpStatus.OK);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        int status = statusOf(HttpMethod.POST, urlA + "/api/paystack/subscriptions",
+                new HttpEntity<>(Map.of("email", email, "amount", 5000, "intervalDays", 30), headers));
+        
+        assertThat(status).isEqualTo(HttpStatus.OK.value());
+    }
+    
+    @Test
+    void membershipUpdateRequiresAdminToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(ConfigController.ADMIN_TOKEN_HEADER, "wrong");
+        
+        int status = statusOf(HttpMethod.PUT, urlA + "/api/paystack/cluster/members",
+                new HttpEntity<>(Map.of("members", List.of(urlA)), headers));
+        
+        assertThat(status).isEqualTo(HttpStatus.FORBIDDEN.value());
+        assertThat(nodeA.getBean(ClusterMembership.class).getMembers()).hasSize(4);
+    }
+    
+    @Test
+    void onlyConnectFailuresCountAsUnreachable() {
+        assertThat(PeerClient.isUnreachable(
+                new ResourceAccessException("I/O error", new ConnectException("Connection refused")))).isTrue();
+        assertThat(PeerClient.isUnreachable(
+                new ResourceAccessException("I/O error", new SocketTimeoutException("Connect timed out")))).isTrue();
+        assertThat(PeerClient.isUnreachable(
+                new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out")))).isFalse();
+    }
+    
+    private ResponseEntity<String> postWebhook(String node, String reference) {
+        String payload = "{\"event\":\"charge.success\",\"data\":{\"reference\":\"" + reference
+                + "\",\"status\":\"success\",\"amount\":50000,\"currency\":\"NGN\"}}";
+        return sendWebhook(node, payload);
+    }
+    
+    private ResponseEntity<String> sendWebhook(String node, String payload) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(PeerClient.SIGNATURE_HEADER, nodeA.getBean(PaystackConfigHolder.class).current()
+                .sign(payload.getBytes(StandardCharsets.UTF_8)));
+        try {
+            return restTemplate.postForEntity(node + "/api/paystack/webhook", new HttpEntity<>(payload, headers), String.class);
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsString());
+        }
+    }
+    
+    private int statusOf(HttpMethod method, String url, HttpEntity<?> entity) {
+        try {
+            return restTemplate.exchange(url, method, entity, String.class).getStatusCode().value();
+        } catch (HttpStatusCodeException e) {
+            return e.getStatusCode().value();
+        }
+    }
+    
+    private static String referenceOwnedBy(String node) {
+        ClusterMembership membership = nodeA.getBean(ClusterMembership.class);
+        while (true) {
+            String reference = "TXN_CLUSTER_" + REFERENCES.incrementAndGet();
+            if (node.equals(membership.ownerOf(reference))) {
+                return reference;
+            }
+        }
+    }
+    
+    private static boolean stored(String reference) {
+        return nodeA.getBean(TransactionRecordRepository.class).existsById(reference);
+    }
+    
+    /**
+     * Whether the node wrote the row itself, rather than heard of it from another member
+     */
+    private static boolean writtenBy(String node, String reference) {
+        return WRITTEN_BY.getOrDefault(node, Set.of()).contains(reference);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static long count(ConfigurableApplicationContext node, String currency) {
+        Map<String, Object> revenue = (Map<String, Object>) node.getBean(StatsService.class).getStats().get("revenue");
+        Map<String, Map<String, Long>> byCurrency = (Map<String, Map<String, Long>>) revenue.get("by_currency");
+        return byCurrency.getOrDefault(currency, Map.of("count", 0L)).get("count");
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+    
+    private static TransactionVerificationData success(String reference) {
+        TransactionVerificationData data = new TransactionVerificationData();
+        data.setReference(reference);
+        data.setStatus("success");
+        data.setAmount(new BigDecimal("50000"));
+        data.setCurrency("NGN");
+        return data;
+    }
+    
+    private static ConfigurableApplicationContext start(int port, String self, List<String> members) {
+        Set<String> written = WRITTEN_BY.computeIfAbsent(self, node -> ConcurrentHashMap.newKeySet());
+        ApplicationListener<ApplicationEvent> localWrites = event -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof TransactionFinalizedEvent finalized
+                    && !finalized.replicated()) {
+                written.add(finalized.transaction().getReference());
+            }
+        };
+        return new SpringApplicationBuilder(PaystackApplication.class).listeners(localWrites).run(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:cluster-routing;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--paystack.webhook-secret=" + WEBHOOK_SECRET,
+                "--paystack.admin-token=cluster-test-admin",
+                "--paystack.cluster.self=" + self,
+                "--paystack.cluster.members=" + String.join(",", members));
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
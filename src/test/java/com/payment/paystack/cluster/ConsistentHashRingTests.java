@@ -0,0 +1,49 @@
+package com.payment.paystack.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTests {
+    
+    private static final int KEYS = 20_000;
+    
+    @Test
+    void spreadsKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(
+                List.of("http://node-a:8080", "http://node-b:8080", "http://node-c:8080"), 128);
+        
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.ownerOf("TXN_" + i), 1, Integer::sum);
+        }
+        
+        assertThat(counts).hasSize(3);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 4, KEYS / 2));
+    }
+    
+    @Test
+    void addingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(
+                List.of("http://node-a:8080", "http://node-b:8080", "http://node-c:8080"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(
+                List.of("http://node-a:8080", "http://node-b:8080", "http://node-c:8080", "http://node-d:8080"), 128);
+        
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "TXN_" + i;
+            String oldOwner = before.ownerOf(key);
+            String newOwner = after.ownerOf(key);
+            if (!oldOwner.equals(newOwner)) {
+                assertThat(newOwner).isEqualTo("http://node-d:8080");
+                moved++;
+            }
+        }
+        
+        assertThat(moved).isBetween(KEYS / 8, KEYS / 3);
+    }
+}
@@ -0,0 +1,52 @@
+package com.payment.paystack.config;
+
+import com.payment.paystack.entity.Subscription;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.annotation.ReflectiveRuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaystackAotConfigTests {
+    
+    @Test
+    void everyDtoHasBindingHints() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, PaystackAotConfig.class);
+        
+        List<Class<?>> dtos = dtoClasses();
+        assertThat(dtos).isNotEmpty();
+        assertThat(dtos).allSatisfy(type -> assertThat(RuntimeHintsPredicates.reflection().onType(type))
+                .as("binding hints for %s", type.getName())
+                .accepts(hints));
+    }
+    
+    @Test
+    void entitiesReturnedByControllersHaveBindingHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new ReflectiveRuntimeHintsRegistrar().registerRuntimeHints(hints, PaystackAotConfig.class);
+        
+        assertThat(RuntimeHintsPredicates.reflection().onType(Subscription.class)).accepts(hints);
+    }
+    
+    // Every class in the dto package, nested ones included; Lombok builders are never bound
+    private static List<Class<?>> dtoClasses() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        List<Class<?>> classes = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.payment.paystack.dto")) {
+            Class<?> type = ClassUtils.forName(candidate.getBeanClassName(), PaystackAotConfigTests.class.getClassLoader());
+            if (!type.getSimpleName().endsWith("Builder")) {
+                classes.add(type);
+            }
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,95 @@
+package com.payment.paystack.config;
+
+import com.payment.paystack.exception.PaystackException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaystackConfigHolderTests {
+    
+    private static final byte[] PAYLOAD = "{\"event\":\"charge.success\"}".getBytes(StandardCharsets.UTF_8);
+    
+    private final PaystackProperties properties = new PaystackProperties();
+    private PaystackConfigHolder holder;
+    
+    @BeforeEach
+    void setUp() {
+        properties.setTest(new PaystackProperties.EnvironmentConfig());
+        properties.setWebhookSecret("old-secret");
+        holder = new PaystackConfigHolder(properties);
+    }
+    
+    @Test
+    void acceptsThePreviousSecretDuringTheGracePeriod() {
+        String oldSignature = holder.current().sign(PAYLOAD);
+        
+        holder.reload(null, null, null, "new-secret");
+        
+        PaystackSnapshot snapshot = holder.current();
+        assertThat(snapshot.verifySignature(PAYLOAD, snapshot.sign(PAYLOAD))).isTrue();
+        assertThat(snapshot.verifySignature(PAYLOAD, oldSignature)).isTrue();
+        assertThat(snapshot.getWebhookKeyFingerprints()).hasSize(2);
+    }
+    
+    @Test
+    void rejectsThePreviousSecretOnceTheGraceExpires() {
+        properties.setKeyRotationGrace(Duration.ZERO);
+        String oldSignature = holder.current().sign(PAYLOAD);
+        
+        holder.reload(null, null, null, "new-secret");
+        
+        assertThat(holder.current().verifySignature(PAYLOAD, oldSignature)).isFalse();
+    }
+    
+    @Test
+    void keepsThePreviousSecretAcrossOtherReloads() {
+        String oldSignature = holder.current().sign(PAYLOAD);
+        holder.reload(null, null, null, "new-secret");
+        
+        holder.reload(null, "sk_test_rotated", null, null);
+        
+        assertThat(holder.current().verifySignature(PAYLOAD, oldSignature)).isTrue();
+    }
+    
+    @Test
+    void dropsTheOldestSecretOnASecondRotation() {
+        String oldSignature = holder.current().sign(PAYLOAD);
+        holder.reload(null, null, null, "new-secret");
+        String newSignature = holder.current().sign(PAYLOAD);
+        
+        holder.reload(null, null, null, "newest-secret");
+        
+        assertThat(holder.current().verifySignature(PAYLOAD, newSignature)).isTrue();
+        assertThat(holder.current().verifySignature(PAYLOAD, oldSignature)).isFalse();
+    }
+    
+    @Test
+    void rejectsMissingAndMalformedSignatures() {
+        PaystackSnapshot snapshot = holder.current();
+        
+        assertThat(snapshot.verifySignature(PAYLOAD, null)).isFalse();
+        assertThat(snapshot.verifySignature(PAYLOAD, "not-hex")).isFalse();
+        assertThat(snapshot.verifySignature(PAYLOAD, "abcd")).isFalse();
+    }
+    
+    @Test
+    void publishesANewVersionOnEachReload() {
+        long version = holder.current().getVersion();
+        
+        holder.reload(null, "sk_test_rotated", null, null);
+        
+        assertThat(holder.current().getVersion()).isEqualTo(version + 1);
+    }
+    
+    @Test
+    void rejectsUnknownOrUnconfiguredEnvironments() {
+        assertThatThrownBy(() -> holder.reload("staging", null, null, null)).isInstanceOf(PaystackException.class);
+        assertThatThrownBy(() -> holder.reload("production", null, null, null)).isInstanceOf(PaystackException.class);
+        assertThat(holder.current().getVersion()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.payment.paystack.controller;
+
+import com.payment.paystack.service.ExportService;
+import com.payment.paystack.service.PaystackSyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SyncControllerTests {
+    
+    private final ExportService exportService = mock(ExportService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new SyncController(mock(PaystackSyncService.class), exportService))
+            .build();
+    
+    @Test
+    void unknownExportFormatIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/paystack/export/transactions").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(get("/api/paystack/export/transfers").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(exportService);
+    }
+    
+    @Test
+    void formatNamesAreCaseInsensitive() {
+        assertThat(ExportService.Format.parse(" NDJSON ")).contains(ExportService.Format.NDJSON);
+        assertThat(ExportService.Format.parse("csv")).contains(ExportService.Format.CSV);
+        assertThat(ExportService.Format.parse(null)).contains(ExportService.Format.CSV);
+        assertThat(ExportService.Format.parse("xml")).isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+package com.payment.paystack.deadline;
+
+import com.payment.paystack.config.PaystackProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineFilterTests {
+    
+    private final PaystackProperties paystackProperties = new PaystackProperties();
+    private final DeadlineStats deadlineStats = new DeadlineStats();
+    private final DeadlineFilter filter = new DeadlineFilter(paystackProperties, deadlineStats);
+    
+    @Test
+    void parsesRelativeTimeouts() throws Exception {
+        assertThat(remainingWith(DeadlineFilter.TIMEOUT_HEADER, "2000")).isBetween(1500L, 2000L);
+        assertThat(remainingWith(DeadlineFilter.TIMEOUT_HEADER, "500ms")).isBetween(1L, 500L);
+        assertThat(remainingWith(DeadlineFilter.TIMEOUT_HEADER, "2s")).isBetween(1500L, 2000L);
+        assertThat(remainingWith(DeadlineFilter.TIMEOUT_HEADER, "PT2S")).isBetween(1500L, 2000L);
+    }
+    
+    @Test
+    void parsesAbsoluteDeadlines() throws Exception {
+        Instant in2s = Instant.now().plusSeconds(2);
+        
+        assertThat(remainingWith(DeadlineFilter.DEADLINE_HEADER, String.valueOf(in2s.toEpochMilli())))
+                .isBetween(1500L, 2000L);
+        assertThat(remainingWith(DeadlineFilter.DEADLINE_HEADER, in2s.toString())).isBetween(1500L, 2000L);
+    }
+    
+    @Test
+    void capsBudgetsAtTheConfiguredMaximum() throws Exception {
+        assertThat(remainingWith(DeadlineFilter.TIMEOUT_HEADER, "PT1H")).isBetween(29_000L, 30_000L);
+    }
+    
+    @Test
+    void capsBudgetsTooLargeToRepresent() throws Exception {
+        assertThat(remainingWith(DeadlineFilter.TIMEOUT_HEADER, String.valueOf(Long.MAX_VALUE)))
+                .isBetween(29_000L, 30_000L);
+        assertThat(remainingWith(DeadlineFilter.DEADLINE_HEADER, String.valueOf(Long.MAX_VALUE)))
+                .isBetween(29_000L, 30_000L);
+        assertThat(remainingWith(DeadlineFilter.DEADLINE_HEADER, "+1000000000-12-31T23:59:59Z"))
+                .isBetween(29_000L, 30_000L);
+    }
+    
+    @Test
+    void ignoresMalformedHeaders() throws Exception {
+        assertThat(deadlineWith(DeadlineFilter.TIMEOUT_HEADER, "soon")).isNull();
+        assertThat(deadlineWith(DeadlineFilter.TIMEOUT_HEADER, "99999999999999999999")).isNull();
+        assertThat(deadlineWith(DeadlineFilter.DEADLINE_HEADER, "tomorrow")).isNull();
+    }
+    
+    @Test
+    void appliesTheDefaultTimeoutWithoutAHeader() throws Exception {
+        assertThat(deadlineWith(null, null)).isNull();
+        
+        paystackProperties.getDeadline().setDefaultTimeout(Duration.ofSeconds(5));
+        assertThat(deadlineWith(null, null).remaining().toMillis()).isBetween(4500L, 5000L);
+    }
+    
+    @Test
+    void answersExpiredRequestsWithoutCallingTheChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/paystack/initialize");
+        request.addHeader(DeadlineFilter.DEADLINE_HEADER, Instant.now().minusSeconds(1).toString());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        filter.doFilter(request, response, (req, res) -> {
+            throw new AssertionError("chain must not run");
+        });
+        
+        assertThat(response.getStatus()).isEqualTo(504);
+        assertThat(response.getContentAsString()).contains("DEADLINE_EXCEEDED");
+        assertThat(deadlineStats.getStats()).containsEntry("expired_on_arrival", 1L);
+    }
+    
+    @Test
+    void clearsTheDeadlineAfterTheRequest() throws Exception {
+        deadlineWith(DeadlineFilter.TIMEOUT_HEADER, "2s");
+        
+        assertThat(DeadlineContext.current()).isNull();
+    }
+    
+    private long remainingWith(String header, String value) throws Exception {
+        return deadlineWith(header, value).remaining().toMillis();
+    }
+    
+    private Deadline deadlineWith(String header, String value) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/paystack/verify/REF_1");
+        if (header != null) {
+            request.addHeader(header, value);
+        }
+        AtomicReference<Deadline> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(DeadlineContext.current());
+        
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return seen.get();
+    }
+}
@@ -0,0 +1,90 @@
+package com.payment.paystack.deadline;
+
+import com.payment.paystack.exception.ErrorType;
+import com.payment.paystack.exception.UpstreamException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineGuardTests {
+    
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final DeadlineStats deadlineStats = new DeadlineStats();
+    private final DeadlineGuard guard = new DeadlineGuard(executor, deadlineStats);
+    
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void runsCallsWithoutADeadlineDirectly() throws Exception {
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+        assertThat(guard.send(() -> "ok")).isEqualTo("ok");
+    }
+    
+    @Test
+    void abandonsReadsThatOutliveTheDeadline() throws Exception {
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(100)));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        
+        assertThatThrownBy(() -> guard.call(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        })).isSameAs(UpstreamException.of(ErrorType.DEADLINE_EXCEEDED));
+        
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(deadlineStats.getStats()).containsEntry("exceeded_during_call", 1L);
+    }
+    
+    @Test
+    void letsSentCallsFinishPastTheDeadline() throws Exception {
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(50)));
+        
+        String result = guard.send(() -> {
+            Thread.sleep(200);
+            return "charged";
+        });
+        
+        assertThat(result).isEqualTo("charged");
+        assertThat(deadlineStats.getStats()).containsEntry("exceeded_during_call", 0L);
+    }
+    
+    @Test
+    void rejectsCallsBeforeSendingOnceTheDeadlineHasPassed() {
+        DeadlineContext.set(Deadline.after(Duration.ofMillis(-1)));
+        AtomicBoolean sent = new AtomicBoolean();
+        
+        assertThatThrownBy(() -> guard.send(() -> sent.getAndSet(true)))
+                .isSameAs(UpstreamException.of(ErrorType.DEADLINE_EXCEEDED));
+        assertThatThrownBy(() -> guard.call(() -> sent.getAndSet(true)))
+                .isSameAs(UpstreamException.of(ErrorType.DEADLINE_EXCEEDED));
+        
+        assertThat(sent).isFalse();
+        assertThat(deadlineStats.getStats()).containsEntry("expired_before_call", 2L);
+    }
+    
+    @Test
+    void passesFailuresThrough() {
+        DeadlineContext.set(Deadline.after(Duration.ofSeconds(5)));
+        IllegalStateException failure = new IllegalStateException("boom");
+        
+        assertThatThrownBy(() -> guard.call(() -> {
+            throw failure;
+        })).isSameAs(failure);
+    }
+}
@@ -0,0 +1,85 @@
+package com.payment.paystack.exception;
+
+import com.payment.paystack.config.PaystackProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorClassifierTests {
+    
+    private final ErrorClassifier classifier = new ErrorClassifier(new ErrorLog(new PaystackProperties()));
+    
+    @Test
+    void classifiesHttpErrorsByStatus() {
+        assertThat(ErrorClassifier.typeOf(serverError(HttpStatus.BAD_GATEWAY)))
+                .isEqualTo(ErrorType.UPSTREAM_SERVER_ERROR);
+        assertThat(ErrorClassifier.typeOf(clientError(HttpStatus.TOO_MANY_REQUESTS)))
+                .isEqualTo(ErrorType.UPSTREAM_RATE_LIMITED);
+        assertThat(ErrorClassifier.typeOf(clientError(HttpStatus.BAD_REQUEST)))
+                .isEqualTo(ErrorType.UPSTREAM_CLIENT_ERROR);
+    }
+    
+    @Test
+    void separatesTimeoutsFromConnectionFailures() {
+        assertThat(ErrorClassifier.typeOf(new ResourceAccessException("read", new SocketTimeoutException())))
+                .isEqualTo(ErrorType.UPSTREAM_TIMEOUT);
+        assertThat(ErrorClassifier.typeOf(new ResourceAccessException("read", new HttpTimeoutException("t"))))
+                .isEqualTo(ErrorType.UPSTREAM_TIMEOUT);
+        assertThat(ErrorClassifier.typeOf(new ResourceAccessException("connect", new ConnectException())))
+                .isEqualTo(ErrorType.UPSTREAM_UNAVAILABLE);
+        assertThat(ErrorClassifier.typeOf(new TimeoutException())).isEqualTo(ErrorType.UPSTREAM_TIMEOUT);
+        assertThat(ErrorClassifier.typeOf(new CancellationException())).isEqualTo(ErrorType.UPSTREAM_TIMEOUT);
+    }
+    
+    @Test
+    void keepsTheTypeOfKnownExceptions() {
+        assertThat(ErrorClassifier.typeOf(UpstreamException.of(ErrorType.DEADLINE_EXCEEDED)))
+                .isEqualTo(ErrorType.DEADLINE_EXCEEDED);
+        assertThat(ErrorClassifier.typeOf(new PaystackException("declined")))
+                .isEqualTo(ErrorType.PAYSTACK_ERROR);
+        assertThat(ErrorClassifier.typeOf(new IllegalStateException()))
+                .isEqualTo(ErrorType.INTERNAL_ERROR);
+    }
+    
+    @Test
+    void sharesOneExceptionPerUpstreamFailure() {
+        PaystackException first = classifier.classify("verifying transaction", serverError(HttpStatus.BAD_GATEWAY));
+        PaystackException second = classifier.classify("verifying transaction",
+                serverError(HttpStatus.SERVICE_UNAVAILABLE));
+        
+        assertThat(first).isSameAs(second).isSameAs(UpstreamException.of(ErrorType.UPSTREAM_SERVER_ERROR));
+    }
+    
+    @Test
+    void keepsTheCauseOfOtherFailures() {
+        IOException cause = new IOException("disk full");
+        
+        PaystackException exception = classifier.classify("verifying transaction", cause);
+        
+        assertThat(exception.getMessage()).isEqualTo("Error verifying transaction: disk full");
+        assertThat(exception.getCause()).isSameAs(cause);
+    }
+    
+    private static HttpServerErrorException serverError(HttpStatus status) {
+        return HttpServerErrorException.create(status, status.getReasonPhrase(), HttpHeaders.EMPTY, null,
+                StandardCharsets.UTF_8);
+    }
+    
+    private static HttpClientErrorException clientError(HttpStatus status) {
+        return HttpClientErrorException.create(status, status.getReasonPhrase(), HttpHeaders.EMPTY, null,
+                StandardCharsets.UTF_8);
+    }
+}
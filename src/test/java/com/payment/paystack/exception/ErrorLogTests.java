@@ -0,0 +1,68 @@
+package com.payment.paystack.exception;
+
+import com.payment.paystack.config.PaystackProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorLogTests {
+    
+    private static final long START = 1_000_000_000L;
+    private static final long INTERVAL = Duration.ofSeconds(10).toNanos();
+    
+    private final ErrorLog errorLog = new ErrorLog(new PaystackProperties());
+    private final Exception error = new IOException("Connection refused");
+    
+    @Test
+    void logsTheFirstFailurePerIntervalAndCountsTheRest() {
+        assertThat(record("verifying transaction", START)).isTrue();
+        assertThat(record("verifying transaction", START + 1)).isFalse();
+        assertThat(record("verifying transaction", START + INTERVAL - 1)).isFalse();
+        assertThat(record("verifying transaction", START + INTERVAL)).isTrue();
+        
+        assertThat(errorLog.getCounts()).containsEntry("verifying transaction CONNECTION_ERROR", 4L);
+    }
+    
+    @Test
+    void limitsEachOperationAndTypeSeparately() {
+        assertThat(record("verifying transaction", START)).isTrue();
+        assertThat(record("initiating transfer", START + 1)).isTrue();
+        assertThat(errorLog.record("initiating transfer", ErrorType.UPSTREAM_TIMEOUT, error, START + 2)).isTrue();
+    }
+    
+    @Test
+    void flushesCountsThatNoLaterFailureReported() {
+        record("verifying transaction", START);
+        record("verifying transaction", START + 1);
+        record("verifying transaction", START + 2);
+        
+        assertThat(errorLog.flush(START + INTERVAL - 1)).isZero();
+        assertThat(errorLog.flush(START + INTERVAL)).isEqualTo(1);
+        assertThat(errorLog.flush(START + 2 * INTERVAL)).isZero();
+        
+        // The flush started a new interval
+        assertThat(record("verifying transaction", START + INTERVAL + 1)).isFalse();
+    }
+    
+    @Test
+    void flushesNothingWhenEveryFailureWasLogged() {
+        record("verifying transaction", START);
+        
+        assertThat(errorLog.flush(START + INTERVAL)).isZero();
+    }
+    
+    @Test
+    void leavesDeadlineFailuresToDeadlineStats() {
+        assertThat(errorLog.record("verifying transaction", ErrorType.DEADLINE_EXCEEDED, error, START)).isFalse();
+        
+        assertThat(errorLog.getCounts()).isEmpty();
+        assertThat(errorLog.flush(START + INTERVAL)).isZero();
+    }
+    
+    private boolean record(String operation, long now) {
+        return errorLog.record(operation, ErrorType.UPSTREAM_UNAVAILABLE, error, now);
+    }
+}
@@ -0,0 +1,147 @@
+package com.payment.paystack.journal;
+
+import com.payment.paystack.config.PaystackProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalTests {
+    
+    private static final int SEGMENT_SIZE = 256;
+    
+    @TempDir
+    Path directory;
+    
+    private final List<Journal> opened = new ArrayList<>();
+    
+    @AfterEach
+    void stop() throws InterruptedException {
+        for (Journal journal : opened) {
+            journal.stop();
+        }
+    }
+    
+    @Test
+    void rotatesFullSegmentsAndKeepsRecordsInOrder() throws Exception {
+        Journal journal = open();
+        
+        long offset = -1;
+        for (int i = 1; i <= 5; i++) {
+            offset = journal.append(RecordType.WEBHOOK, "REF_" + i, payload(100));
+        }
+        
+        assertThat(journal.awaitDurable(offset, Duration.ofSeconds(5))).isTrue();
+        assertThat(segmentFiles()).hasSize(3);
+        assertThat(Files.size(Segment.pathOf(directory, 1))).isLessThan(SEGMENT_SIZE);
+        assertThat(references(record -> true)).containsExactly("REF_1", "REF_2", "REF_3", "REF_4", "REF_5");
+    }
+    
+    @Test
+    void offsetsKeepGrowingAcrossSegments() throws Exception {
+        Journal journal = open();
+        
+        long previous = -1;
+        for (int i = 1; i <= 5; i++) {
+            long offset = journal.append(RecordType.WEBHOOK, "REF_" + i, payload(100));
+            assertThat(offset).isGreaterThan(previous);
+            previous = offset;
+        }
+    }
+    
+    @Test
+    void continuesAfterRestart() throws Exception {
+        Journal first = open();
+        first.append(RecordType.WEBHOOK, "REF_1", payload(10));
+        first.stop();
+        opened.remove(first);
+        
+        Journal second = open();
+        long offset = second.append(RecordType.WEBHOOK, "REF_2", payload(10));
+        
+        assertThat(second.awaitDurable(offset, Duration.ofSeconds(5))).isTrue();
+        assertThat(references(record -> true)).containsExactly("REF_1", "REF_2");
+    }
+    
+    @Test
+    void reopensASealedLastSegment() throws Exception {
+        // As left by a crash between sealing a segment and opening the next
+        Segment sealed = Segment.open(directory, 1, 0, SEGMENT_SIZE);
+        sealed.append(new JournalRecord(System.currentTimeMillis(), RecordType.WEBHOOK, "REF_1", payload(10)).encode());
+        sealed.seal();
+        
+        Journal journal = open();
+        long offset = journal.append(RecordType.WEBHOOK, "REF_2", payload(10));
+        
+        assertThat(journal.awaitDurable(offset, Duration.ofSeconds(5))).isTrue();
+        assertThat(references(record -> true)).containsExactly("REF_1", "REF_2");
+    }
+    
+    @Test
+    void readerFiltersByReferenceAndType() throws Exception {
+        Journal journal = open();
+        journal.append(RecordType.OUTBOUND_REQUEST, "REF_A", payload(10));
+        journal.append(RecordType.WEBHOOK, "REF_A", payload(10));
+        journal.append(RecordType.WEBHOOK, "REF_B", payload(10));
+        long offset = journal.append(RecordType.OUTBOUND_REQUEST, "REF_B", payload(10));
+        journal.awaitDurable(offset, Duration.ofSeconds(5));
+        
+        assertThat(references(JournalReader.byReference("REF_A"))).containsExactly("REF_A", "REF_A");
+        assertThat(references(JournalReader.byType(RecordType.WEBHOOK))).containsExactly("REF_A", "REF_B");
+        assertThat(references(JournalReader.byReference("REF_B").and(JournalReader.byType(RecordType.WEBHOOK))))
+                .containsExactly("REF_B");
+    }
+    
+    @Test
+    void doesNothingWhenDisabled() throws Exception {
+        PaystackProperties properties = new PaystackProperties();
+        properties.getJournal().setDirectory(directory.toString());
+        Journal journal = new Journal(properties);
+        journal.start();
+        
+        assertThat(journal.isEnabled()).isFalse();
+        assertThat(journal.append(RecordType.WEBHOOK, "REF_1", payload(10))).isEqualTo(-1);
+        assertThat(journal.awaitDurable(-1, Duration.ZERO)).isTrue();
+        assertThat(segmentFiles()).isEmpty();
+    }
+    
+    private Journal open() throws IOException {
+        PaystackProperties properties = new PaystackProperties();
+        properties.getJournal().setEnabled(true);
+        properties.getJournal().setDirectory(directory.toString());
+        properties.getJournal().setSegmentSize(SEGMENT_SIZE);
+        Journal journal = new Journal(properties);
+        journal.start();
+        opened.add(journal);
+        return journal;
+    }
+    
+    private List<String> references(Predicate<JournalRecord> filter) throws IOException {
+        List<String> references = new ArrayList<>();
+        JournalReader.scan(directory, filter, record -> references.add(record.reference()));
+        return references;
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> Segment.sequenceOf(file) >= 0).toList();
+        }
+    }
+    
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        Arrays.fill(payload, (byte) 'x');
+        return payload;
+    }
+}
@@ -0,0 +1,92 @@
+package com.payment.paystack.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentTests {
+    
+    private static final int SEGMENT_SIZE = 4096;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void acceptsIntactRecordsAndRejectsCorruptOnes() {
+        byte[] encoded = record("REF_1", "payload").encode();
+        
+        assertThat(JournalRecord.sizeAt(ByteBuffer.wrap(encoded), 0)).isEqualTo(encoded.length);
+        JournalRecord decoded = JournalRecord.decode(ByteBuffer.wrap(encoded), 0);
+        assertThat(decoded.reference()).isEqualTo("REF_1");
+        assertThat(decoded.type()).isEqualTo(RecordType.WEBHOOK);
+        assertThat(decoded.payloadAsString()).isEqualTo("payload");
+        
+        encoded[encoded.length - 1] ^= 1;
+        assertThat(JournalRecord.sizeAt(ByteBuffer.wrap(encoded), 0)).isZero();
+    }
+    
+    @Test
+    void rejectsLengthsPastTheEndOfTheSegment() {
+        byte[] encoded = record("REF_1", "payload").encode();
+        
+        assertThat(JournalRecord.sizeAt(ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 1)), 0)).isZero();
+        assertThat(JournalRecord.sizeAt(ByteBuffer.allocate(64), 0)).isZero();
+    }
+    
+    @Test
+    void resumesAfterTheLastIntactRecordAndDropsATornTail() throws IOException {
+        byte[] first = record("REF_1", "first").encode();
+        byte[] torn = record("REF_2", "torn record that never finished writing").encode();
+        
+        Segment segment = Segment.open(directory, 1, 0, SEGMENT_SIZE);
+        segment.append(first);
+        segment.append(Arrays.copyOf(torn, torn.length / 2));
+        segment.seal();
+        
+        Segment reopened = Segment.open(directory, 1, 0, SEGMENT_SIZE);
+        assertThat(reopened.endOffset()).isEqualTo(first.length);
+        reopened.append(record("REF_3", "after restart").encode());
+        reopened.seal();
+        
+        assertThat(references()).containsExactly("REF_1", "REF_3");
+    }
+    
+    @Test
+    void sealingTrimsTheFileToItsRecords() throws IOException {
+        byte[] encoded = record("REF_1", "payload").encode();
+        
+        Segment segment = Segment.open(directory, 1, 0, SEGMENT_SIZE);
+        segment.append(encoded);
+        segment.seal();
+        
+        assertThat(Files.size(Segment.pathOf(directory, 1))).isEqualTo(encoded.length);
+    }
+    
+    @Test
+    void parsesSegmentFileNames() {
+        assertThat(Segment.sequenceOf(Segment.pathOf(directory, 42))).isEqualTo(42);
+        assertThat(Segment.sequenceOf(directory.resolve("journal-abc.log"))).isEqualTo(-1);
+        assertThat(Segment.sequenceOf(directory.resolve("notes.txt"))).isEqualTo(-1);
+    }
+    
+    private List<String> references() throws IOException {
+        List<String> references = new ArrayList<>();
+        JournalReader.scan(directory, record -> true, record -> references.add(record.reference()));
+        return references;
+    }
+    
+    private static JournalRecord record(String reference, String payload) {
+        return new JournalRecord(System.currentTimeMillis(), RecordType.WEBHOOK, reference,
+                payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
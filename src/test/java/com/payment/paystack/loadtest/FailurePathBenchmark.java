@@ -0,0 +1,154 @@
+package com.payment.paystack.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.exception.ErrorClassifier;
+import com.payment.paystack.exception.ErrorLog;
+import com.payment.paystack.exception.PaystackException;
+import com.payment.paystack.exception.UpstreamException;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of the failure path while Paystack is unreachable.
+ *
+ * Each operation fails the way a RestTemplate call does during an outage
+ * (a ResourceAccessException thrown from deep in the stack) and is turned
+ * into an error response twice: the way it used to be handled (wrapped in
+ * a new PaystackException, logged with a stack trace by the service and
+ * again by the controller, message-built body) and through ErrorClassifier
+ * (shared stackless exception, rate-limited log, prebuilt body). Logging
+ * goes through Logback's real encoder into a null stream.
+ *
+ * Arguments are key=value pairs:
+ * <pre>
+ *   threads=4 duration=5 warmup=2 depth=80
+ * </pre>
+ */
+public class FailurePathBenchmark {
+    
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(FailurePathBenchmark.class);
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = PaystackLoadGenerator.parseArgs(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "5"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "2"));
+        int depth = Integer.parseInt(options.getOrDefault("depth", "80"));
+        
+        configureNullLogging();
+        ErrorClassifier classifier = new ErrorClassifier(new ErrorLog(new PaystackProperties()));
+        Supplier<Exception> outage = () -> deepFailure(depth);
+        
+        Map<String, Runnable> variants = new LinkedHashMap<>();
+        variants.put("wrapped + logged twice", () -> legacyPath(outage.get()));
+        variants.put("classified + rate-limited", () -> classifiedPath(classifier, outage.get()));
+        
+        System.out.printf("threads=%d duration=%ds depth=%d%n", threads, duration, depth);
+        for (Map.Entry<String, Runnable> variant : variants.entrySet()) {
+            String name = variant.getKey();
+            run(variant.getValue(), threads, warmup);
+            Result result = run(variant.getValue(), threads, duration);
+            System.out.printf("%-28s %,12.0f ops/s %,10d bytes/op%n",
+                    name, result.operations / (double) duration, result.allocatedBytes / Math.max(1, result.operations));
+        }
+    }
+    
+    private static ResponseEntity<Map<String, Object>> legacyPath(Exception upstream) {
+        PaystackException wrapped;
+        try {
+            log.error("Error verifying transaction: {}", upstream.getMessage(), upstream);
+            throw new PaystackException("Error verifying transaction: " + upstream.getMessage(), upstream);
+        } catch (PaystackException e) {
+            wrapped = e;
+        }
+        log.error("Error verifying payment: {}", wrapped.getMessage(), wrapped);
+        
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", "Failed to verify payment: " + wrapped.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+    
+    private static ResponseEntity<Map<String, Object>> classifiedPath(ErrorClassifier classifier, Exception upstream) {
+        PaystackException exception = classifier.classify("verifying transaction", upstream);
+        if (exception instanceof UpstreamException known) {
+            return known.getType().toResponse();
+        }
+        throw new IllegalStateException("Expected an upstream failure", exception);
+    }
+    
+    private static Result run(Runnable operation, int threads, long seconds) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        LongAdder allocated = new LongAdder();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+        
+        for (int i = 0; i < threads; i++) {
+            Thread.ofPlatform().name("failure-bench-" + i).start(() -> {
+                long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+                long count = 0;
+                while (System.nanoTime() < end) {
+                    operation.run();
+                    count++;
+                }
+                allocated.add(THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore);
+                operations.add(count);
+                done.countDown();
+            });
+        }
+        done.await();
+        return new Result(operations.sum(), allocated.sum());
+    }
+    
+    // Fails like a RestTemplate call does when the connection is refused
+    private static Exception deepFailure(int depth) {
+        if (depth > 0) {
+            return deepFailure(depth - 1);
+        }
+        return new ResourceAccessException("I/O error on GET request for \"https://api.paystack.co/transaction/verify/TXN\": "
+                + "Connection refused", new ConnectException("Connection refused"));
+    }
+    
+    private static void configureNullLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5level [%thread] %logger{36} : %msg%n");
+        encoder.start();
+        
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+    
+    private record Result(long operations, long allocatedBytes) {
+    }
+}
@@ -0,0 +1,261 @@
+package com.payment.paystack.loadtest;
+
+import com.payment.paystack.PaystackApplication;
+import com.payment.paystack.controller.PaystackController;
+import com.payment.paystack.dto.CreateRecipientResponse;
+import com.payment.paystack.dto.InitializeTransactionResponse;
+import com.payment.paystack.service.HedgedRequestExecutor;
+import com.payment.paystack.simulator.LatencyDistribution;
+import com.payment.paystack.simulator.PaystackSimulator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator for {@link PaystackController}, backed by the
+ * embedded {@link PaystackSimulator}.
+ *
+ * Requests are started at a constant arrival rate regardless of how long
+ * earlier ones take, and latency is measured from each request's intended
+ * start time, so a stalled system shows up in the percentiles instead of
+ * silently lowering the offered load.
+ *
+ * Arguments are key=value pairs:
+ * <pre>
+ *   scenario=initialize|verify|transfer|mixed   (default mixed)
+ *   rate=200              requests per second
+ *   duration=30           seconds
+ *   warmup=5              seconds, not recorded
+ *   median-ms=80 p99-ms=600 error-rate=0.0 rate-limit=0
+ *   stall-probability=0.02 stall-ms=2000    occasional very slow responses
+ *   paystack.hedge.enabled=true             any paystack.* property
+ * </pre>
+ */
+public class PaystackLoadGenerator {
+    
+    private static final String WEBHOOK_SECRET = "whsec_load_test";
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String scenario = options.getOrDefault("scenario", "mixed");
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be a positive number of requests per second: " + rate);
+        }
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+        
+        LatencyDistribution latency = LatencyDistribution.logNormal(
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("median-ms", "80"))),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("p99-ms", "600"))));
+        if (options.containsKey("stall-probability")) {
+            latency = LatencyDistribution.withStalls(latency,
+                    Double.parseDouble(options.get("stall-probability")),
+                    Duration.ofMillis(Long.parseLong(options.getOrDefault("stall-ms", "2000"))));
+        }
+        
+        PaystackSimulator.Settings settings = PaystackSimulator.Settings.builder()
+                .latency(latency)
+                .errorRate(Double.parseDouble(options.getOrDefault("error-rate", "0.0")))
+                .rateLimit(Integer.parseInt(options.getOrDefault("rate-limit", "0")))
+                .webhookSecret(WEBHOOK_SECRET)
+                .build();
+        
+        try (PaystackSimulator simulator = new PaystackSimulator(settings);
+             ConfigurableApplicationContext context = startApplication(simulator, options)) {
+            
+            simulator.setWebhookUrl("http://127.0.0.1:"
+                    + context.getEnvironment().getProperty("local.server.port") + "/api/paystack/webhook");
+            PaystackController controller = context.getBean(PaystackController.class);
+            Supplier<Runnable> requests = scenario(scenario, controller);
+            
+            System.out.printf("Warming up for %ds at %d req/s...%n", warmup.toSeconds(), rate);
+            run(requests, rate, warmup);
+            
+            System.out.printf("Running %s for %ds at %d req/s...%n", scenario, duration.toSeconds(), rate);
+            Result result = run(requests, rate, duration);
+            result.print(scenario, simulator);
+            System.out.printf("hedging       %s%n", context.getBean(HedgedRequestExecutor.class).getStats());
+        }
+    }
+    
+    /**
+     * Start the application against the simulator. Webhooks are delivered
+     * over HTTP, so the embedded server is started on a random port.
+     */
+    static ConfigurableApplicationContext startApplication(PaystackSimulator simulator, Map<String, String> options) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off",
+                "logging.level.com.payment.paystack=WARN",
+                "paystack.active-env=test",
+                "paystack.test.secret-key=sk_test_simulator",
+                "paystack.test.public-key=pk_test_simulator",
+                "paystack.test.base-url=" + simulator.baseUrl(),
+                "paystack.webhook-secret=" + WEBHOOK_SECRET,
+                "paystack.callback-url=http://localhost/callback"));
+        options.forEach((key, value) -> {
+            if (key.startsWith("paystack.")) {
+                properties.add(key + "=" + value);
+            }
+        });
+        return new SpringApplicationBuilder(PaystackApplication.class)
+                .properties(properties.toArray(new String[0]))
+                .run();
+    }
+    
+    static Supplier<Runnable> scenario(String name, PaystackController controller) {
+        return switch (name) {
+            case "initialize" -> () -> () -> expectSuccess(controller.initializePayment(paymentRequest()));
+            case "verify" -> {
+                List<String> references = initializeReferences(controller, 500);
+                yield () -> () -> expectSuccess(controller.verifyPayment(
+                        references.get(ThreadLocalRandom.current().nextInt(references.size()))));
+            }
+            case "transfer" -> {
+                String recipient = createRecipient(controller);
+                yield () -> () -> expectSuccess(controller.initiateTransfer(transferRequest(recipient)));
+            }
+            case "mixed" -> {
+                List<String> references = initializeReferences(controller, 500);
+                String recipient = createRecipient(controller);
+                yield () -> {
+                    int pick = ThreadLocalRandom.current().nextInt(10);
+                    if (pick < 3) {
+                        return () -> expectSuccess(controller.initializePayment(paymentRequest()));
+                    } else if (pick < 9) {
+                        return () -> expectSuccess(controller.verifyPayment(
+                                references.get(ThreadLocalRandom.current().nextInt(references.size()))));
+                    }
+                    return () -> expectSuccess(controller.initiateTransfer(transferRequest(recipient)));
+                };
+            }
+            default -> throw new IllegalArgumentException("Unknown scenario: " + name);
+        };
+    }
+    
+    /**
+     * Issue requests at a constant rate for the given duration and wait for
+     * the stragglers
+     */
+    static Result run(Supplier<Runnable> requests, int rate, Duration duration) throws InterruptedException {
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = duration.toSeconds() * rate;
+        
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * intervalNanos;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Runnable request = requests.get();
+                executor.execute(() -> {
+                    try {
+                        request.run();
+                    } catch (Exception e) {
+                        errors.increment();
+                    } finally {
+                        latencies.recordValue(System.nanoTime() - intended);
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(latencies, errors.sum(), elapsed);
+    }
+    
+    record Result(Histogram latencies, long errors, long elapsedNanos) {
+        
+        void print(String scenario, PaystackSimulator simulator) {
+            long count = latencies.getTotalCount();
+            System.out.printf("%n=== %s ===%n", scenario);
+            System.out.printf("requests      %d (%d errors)%n", count, errors);
+            System.out.printf("throughput    %.1f req/s%n", count / (elapsedNanos / 1e9));
+            System.out.printf("latency (ms)  p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+            System.out.printf("simulator     %d requests, %d rate limited, %d failed%n",
+                    simulator.requestCount(), simulator.rateLimitedCount(), simulator.failedCount());
+        }
+        
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+    
+    private static List<String> initializeReferences(PaystackController controller, int count) {
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Object data = expectSuccess(controller.initializePayment(paymentRequest())).get("data");
+            references.add(((InitializeTransactionResponse.TransactionData) data).getReference());
+        }
+        return references;
+    }
+    
+    private static String createRecipient(PaystackController controller) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("type", "nuban");
+        request.put("name", "Load Test");
+        request.put("account_number", "0123456789");
+        request.put("bank_code", "058");
+        Object data = expectSuccess(controller.createRecipient(request)).get("data");
+        return ((CreateRecipientResponse.RecipientData) data).getRecipientCode();
+    }
+    
+    private static Map<String, Object> paymentRequest() {
+        Map<String, Object> request = new HashMap<>();
+        request.put("email", "load.test@example.com");
+        request.put("amount", 1000);
+        request.put("currency", "NGN");
+        return request;
+    }
+    
+    private static Map<String, Object> transferRequest(String recipient) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("recipient_code", recipient);
+        request.put("amount", 500);
+        request.put("reason", "Load test payout");
+        return request;
+    }
+    
+    private static Map<String, Object> expectSuccess(ResponseEntity<Map<String, Object>> response) {
+        Map<String, Object> body = response.getBody();
+        if (!response.getStatusCode().is2xxSuccessful() || body == null || !Boolean.TRUE.equals(body.get("success"))) {
+            throw new IllegalStateException("Request failed: " + body);
+        }
+        return body;
+    }
+    
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
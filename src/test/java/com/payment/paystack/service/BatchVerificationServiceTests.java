@@ -0,0 +1,118 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.deadline.Deadline;
+import com.payment.paystack.dto.BatchVerifyResult;
+import com.payment.paystack.dto.VerifyTransactionResponse;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchVerificationServiceTests {
+    
+    private final PaystackService paystackService = mock(PaystackService.class);
+    private final TransactionLedger transactionLedger = mock(TransactionLedger.class);
+    private final PaystackProperties paystackProperties = new PaystackProperties();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BatchVerificationService service =
+            new BatchVerificationService(paystackService, transactionLedger, paystackProperties, executor);
+    
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void answersStoredStatesWithOneLookupAndVerifiesTheRest() {
+        when(transactionLedger.findAllFinal(anyCollection())).thenReturn(Map.of("REF_1", data("REF_1")));
+        when(paystackService.verifyTransaction("REF_2")).thenReturn(response("REF_2"));
+        
+        Map<String, BatchVerifyResult> results = verifyAll(List.of("REF_1", "REF_2", " REF_1 "));
+        
+        assertThat(results).hasSize(2);
+        assertThat(results.get("REF_1").getSource()).isEqualTo("ledger");
+        assertThat(results.get("REF_2").getSource()).isEqualTo("paystack");
+        verify(transactionLedger, times(1)).findAllFinal(Set.of("REF_1", "REF_2"));
+        verify(transactionLedger, never()).findFinal(anyString());
+        verify(paystackService, never()).verifyTransaction("REF_1");
+    }
+    
+    @Test
+    void reportsReferencesStillOutstandingAtTheDeadlineAsTimeouts() {
+        paystackProperties.getBatch().setDeadline(Duration.ofMillis(200));
+        when(transactionLedger.findAllFinal(anyCollection())).thenReturn(Map.of());
+        when(paystackService.verifyTransaction("REF_FAST")).thenReturn(response("REF_FAST"));
+        when(paystackService.verifyTransaction("REF_SLOW")).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return response("REF_SLOW");
+        });
+        
+        Map<String, BatchVerifyResult> results = verifyAll(List.of("REF_FAST", "REF_SLOW"));
+        
+        assertThat(results.get("REF_FAST").getSource()).isEqualTo("paystack");
+        assertThat(results.get("REF_SLOW").getSource()).isEqualTo("timeout");
+    }
+    
+    @Test
+    void stopsAtTheRequestDeadlineWhenItIsEarlier() {
+        when(transactionLedger.findAllFinal(anyCollection())).thenReturn(Map.of());
+        when(paystackService.verifyTransaction("REF_SLOW")).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return response("REF_SLOW");
+        });
+        
+        long start = System.nanoTime();
+        Map<String, BatchVerifyResult> results = new ConcurrentHashMap<>();
+        service.verify(List.of("REF_SLOW"), Deadline.after(Duration.ofMillis(200)),
+                result -> results.put(result.getReference(), result));
+        
+        assertThat(results.get("REF_SLOW").getSource()).isEqualTo("timeout");
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isLessThan(paystackProperties.getBatch().getDeadline());
+    }
+    
+    @Test
+    void reportsFailedVerificationsAsErrors() {
+        when(transactionLedger.findAllFinal(anyCollection())).thenReturn(Map.of());
+        when(paystackService.verifyTransaction("REF_BAD")).thenThrow(new IllegalStateException("boom"));
+        
+        Map<String, BatchVerifyResult> results = verifyAll(List.of("REF_BAD"));
+        
+        assertThat(results.get("REF_BAD").getSource()).isEqualTo("error");
+        assertThat(results.get("REF_BAD").getMessage()).isEqualTo("boom");
+    }
+    
+    private Map<String, BatchVerifyResult> verifyAll(List<String> references) {
+        Map<String, BatchVerifyResult> results = new ConcurrentHashMap<>();
+        service.verify(references, result -> assertThat(results.put(result.getReference(), result)).isNull());
+        return results;
+    }
+    
+    private static VerifyTransactionResponse response(String reference) {
+        return new VerifyTransactionResponse(true, "Verification successful", data(reference));
+    }
+    
+    private static TransactionVerificationData data(String reference) {
+        TransactionVerificationData data = new TransactionVerificationData();
+        data.setReference(reference);
+        data.setStatus("success");
+        return data;
+    }
+}
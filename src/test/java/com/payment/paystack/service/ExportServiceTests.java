@@ -0,0 +1,108 @@
+package com.payment.paystack.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.repository.TransferRecordRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTests {
+    
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    
+    private final TransactionRecordRepository transactionRecordRepository = mock(TransactionRecordRepository.class);
+    private final TransferRecordRepository transferRecordRepository = mock(TransferRecordRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExportService service = new ExportService(transactionRecordRepository, transferRecordRepository,
+            mock(EntityManager.class), objectMapper);
+    
+    @Test
+    void writesTransactionsInTheVerifyShapeWithMatchingCsvColumns() throws Exception {
+        JsonNode line = objectMapper.readTree(exportTransactions(ExportService.Format.NDJSON));
+        String[] csv = exportTransactions(ExportService.Format.CSV).split("\n");
+        
+        assertThat(line.get("reference").asText()).isEqualTo("REF_1");
+        assertThat(line.get("gateway_response").asText()).isEqualTo("Approved");
+        assertThat(line.at("/customer/email").asText()).isEqualTo("customer@example.com");
+        assertThat(line.has("revision")).isFalse();
+        assertThat(line.has("updated_at")).isFalse();
+        assertSameFields(csv, line);
+    }
+    
+    @Test
+    void writesTransfersInTheListingShapeWithMatchingCsvColumns() throws Exception {
+        when(transferRecordRepository.streamAll()).thenAnswer(invocation -> Stream.of(TransferRecord.builder()
+                .id(9L)
+                .reference("TRF_1")
+                .transferCode("TRF_code")
+                .status("success")
+                .amount(new BigDecimal("20000"))
+                .currency("NGN")
+                .reason("Payout, March")
+                .recipientCode("RCP_1")
+                .createdAt(T0)
+                .updatedAt(T0.plusSeconds(60))
+                .syncedAt(T0.plusSeconds(120))
+                .revision(2L)
+                .build()));
+        
+        JsonNode line = objectMapper.readTree(exportTransfers(ExportService.Format.NDJSON));
+        String[] csv = exportTransfers(ExportService.Format.CSV).split("\n");
+        
+        assertThat(line.at("/recipient/recipient_code").asText()).isEqualTo("RCP_1");
+        assertThat(line.has("revision")).isFalse();
+        assertThat(line.has("synced_at")).isFalse();
+        assertThat(csv[1]).contains("\"Payout, March\"");
+        assertSameFields(csv, line);
+    }
+    
+    private String exportTransactions(ExportService.Format format) throws Exception {
+        when(transactionRecordRepository.streamAll()).thenAnswer(invocation -> Stream.of(TransactionRecord.builder()
+                .reference("REF_1")
+                .paystackId(42L)
+                .status("success")
+                .amount(new BigDecimal("500000"))
+                .currency("NGN")
+                .channel("card")
+                .gatewayResponse("Approved")
+                .customerEmail("customer@example.com")
+                .paidAt(T0.plusSeconds(5))
+                .createdAt(T0)
+                .updatedAt(T0.plusSeconds(10))
+                .revision(3L)
+                .build()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportTransactions(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private String exportTransfers(ExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportTransfers(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    // Every CSV column holds the NDJSON value at the same path
+    private static void assertSameFields(String[] csv, JsonNode line) {
+        String[] columns = csv[0].split(",");
+        String[] values = csv[1].split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+        assertThat(values).hasSameSizeAs(columns);
+        for (int i = 0; i < columns.length; i++) {
+            JsonNode value = line.at("/" + columns[i].replace('.', '/'));
+            assertThat(values[i].replace("\"", "")).as(columns[i]).isEqualTo(value.asText());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgedRequestExecutorTests {
+    
+    private final PaystackProperties paystackProperties = new PaystackProperties();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void hedgeWinsAgainstSlowFirstAttempt() throws Exception {
+        HedgedRequestExecutor hedged = executor(Duration.ofMillis(20), 5.0);
+        AtomicInteger attempts = new AtomicInteger();
+        
+        String result = hedged.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(10_000);
+                return "slow";
+            }
+            return "fast";
+        });
+        
+        assertThat(result).isEqualTo("fast");
+        assertThat(hedged.getStats()).containsEntry("hedges", 1L);
+    }
+    
+    @Test
+    void hedgesStopWhenTheBudgetIsSpent() throws Exception {
+        // No budget is earned, so only the initial burst of ten hedges is available
+        HedgedRequestExecutor hedged = executor(Duration.ofMillis(5), 0.0);
+        
+        for (int i = 0; i < 12; i++) {
+            hedged.execute(() -> {
+                Thread.sleep(50);
+                return "done";
+            });
+        }
+        
+        assertThat(hedged.getStats()).containsEntry("requests", 12L).containsEntry("hedges", 10L);
+    }
+    
+    @Test
+    void failsWithTheOriginalErrorWhenEveryAttemptFails() {
+        HedgedRequestExecutor hedged = executor(Duration.ofMillis(5), 5.0);
+        
+        assertThatThrownBy(() -> hedged.execute(() -> {
+            Thread.sleep(20);
+            throw new IllegalStateException("upstream down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("upstream down");
+    }
+    
+    @Test
+    void failedAttemptsDoNotMoveTheHedgeDelay() {
+        HedgedRequestExecutor hedged = unhedged();
+        
+        for (int i = 0; i < 128; i++) {
+            assertThatThrownBy(() -> hedged.execute(() -> {
+                throw new IllegalStateException("upstream down");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+        
+        assertThat((double) hedged.getStats().get("hedge_delay_ms")).isEqualTo(5_000.0);
+    }
+    
+    @Test
+    void successfulAttemptsSetTheHedgeDelay() throws Exception {
+        HedgedRequestExecutor hedged = unhedged();
+        
+        for (int i = 0; i < 128; i++) {
+            hedged.execute(() -> "done");
+        }
+        
+        assertThat((double) hedged.getStats().get("hedge_delay_ms")).isLessThan(1_000);
+    }
+    
+    // Samples latencies without hedging, starting from a 5s delay
+    private HedgedRequestExecutor unhedged() {
+        paystackProperties.getHedge().setEnabled(false);
+        paystackProperties.getHedge().setMinDelay(Duration.ofMillis(1));
+        paystackProperties.getHedge().setInitialDelay(Duration.ofSeconds(5));
+        return new HedgedRequestExecutor(paystackProperties, executor);
+    }
+    
+    private HedgedRequestExecutor executor(Duration initialDelay, double budgetPercent) {
+        PaystackProperties.HedgeConfig config = paystackProperties.getHedge();
+        config.setEnabled(true);
+        config.setMinDelay(Duration.ofMillis(1));
+        config.setInitialDelay(initialDelay);
+        config.setBudgetPercent(budgetPercent);
+        return new HedgedRequestExecutor(paystackProperties, executor);
+    }
+}
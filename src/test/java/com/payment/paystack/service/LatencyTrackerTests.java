@@ -0,0 +1,38 @@
+package com.payment.paystack.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrackerTests {
+    
+    @Test
+    void unknownUntilEnoughSamples() {
+        LatencyTracker tracker = new LatencyTracker(95.0, 1024);
+        for (int i = 0; i < 64; i++) {
+            tracker.record(1_000);
+        }
+        assertThat(tracker.percentileNanos()).isEqualTo(-1);
+    }
+    
+    @Test
+    void tracksThePercentileOfTheWindow() {
+        LatencyTracker tracker = new LatencyTracker(95.0, 128);
+        for (int i = 1; i <= 128; i++) {
+            tracker.record(i);
+        }
+        assertThat(tracker.percentileNanos()).isEqualTo(122);
+    }
+    
+    @Test
+    void olderSamplesLeaveTheWindow() {
+        LatencyTracker tracker = new LatencyTracker(50.0, 128);
+        for (int i = 0; i < 128; i++) {
+            tracker.record(1_000_000);
+        }
+        for (int i = 0; i < 128; i++) {
+            tracker.record(1_000);
+        }
+        assertThat(tracker.percentileNanos()).isEqualTo(1_000);
+    }
+}
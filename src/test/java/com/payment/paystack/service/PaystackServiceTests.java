@@ -0,0 +1,58 @@
+package com.payment.paystack.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.paystack.dto.ChargeAuthorizationRequest;
+import com.payment.paystack.dto.CreateRecipientRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaystackServiceTests {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void redactsAuthorizationCodesBeforeJournaling() {
+        JsonNode body = PaystackService.redact(objectMapper.valueToTree(ChargeAuthorizationRequest.builder()
+                .email("customer@example.com")
+                .amount(new BigDecimal("500000"))
+                .authorizationCode("AUTH_secret123")
+                .reference("SUB_7_0")
+                .build()));
+        
+        assertThat(body.get("authorization_code").asText()).isEqualTo("[REDACTED]");
+        assertThat(body.toString()).doesNotContain("AUTH_secret123");
+        assertThat(body.get("reference").asText()).isEqualTo("SUB_7_0");
+    }
+    
+    @Test
+    void masksAccountNumbersBeforeJournaling() {
+        JsonNode body = PaystackService.redact(objectMapper.valueToTree(CreateRecipientRequest.builder()
+                .type("nuban")
+                .name("Jane Doe")
+                .accountNumber("0123456789")
+                .bankCode("058")
+                .build()));
+        
+        assertThat(body.get("account_number").asText()).isEqualTo("****6789");
+        assertThat(body.get("bank_code").asText()).isEqualTo("058");
+    }
+    
+    @Test
+    void redactsCredentialsNestedInWebhookBodies() throws Exception {
+        JsonNode body = PaystackService.redact(objectMapper.readTree("""
+                {"event": "charge.success",
+                 "data": {"reference": "REF_1",
+                          "authorization": {"authorization_code": "AUTH_nested1", "last4": "4081"},
+                          "history": [{"authorization_code": "AUTH_nested2"}]}}
+                """));
+        
+        assertThat(body.at("/data/authorization/authorization_code").asText()).isEqualTo("[REDACTED]");
+        assertThat(body.at("/data/history/0/authorization_code").asText()).isEqualTo("[REDACTED]");
+        assertThat(body.toString()).doesNotContain("AUTH_nested");
+        assertThat(body.at("/data/authorization/last4").asText()).isEqualTo("4081");
+    }
+}
@@ -0,0 +1,143 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.cluster.ClusterMembership;
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.dto.ListMeta;
+import com.payment.paystack.dto.TransactionListResponse;
+import com.payment.paystack.dto.TransferListResponse;
+import com.payment.paystack.dto.VerifyTransactionResponse.TransactionVerificationData;
+import com.payment.paystack.entity.SyncCursor;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.repository.SyncCursorRepository;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.repository.TransferRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaystackSyncServiceTests {
+    
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration LOOKBACK = new PaystackProperties().getSync().getLookback();
+    
+    private final PaystackService paystackService = mock(PaystackService.class);
+    private final TransactionRecordRepository transactionRecordRepository = mock(TransactionRecordRepository.class);
+    private final SyncCursorRepository syncCursorRepository = mock(SyncCursorRepository.class);
+    private final TransactionLedger transactionLedger = mock(TransactionLedger.class);
+    private final PaystackSyncService service = new PaystackSyncService(
+            paystackService,
+            new PaystackProperties(),
+            transactionRecordRepository,
+            mock(TransferRecordRepository.class),
+            syncCursorRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            mock(ApplicationEventPublisher.class),
+            mock(ClusterMembership.class),
+            transactionLedger);
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void walksPagesOldestFirstAndSkipsUnchangedRows() {
+        SyncCursor cursor = cursorAt(T0.plusSeconds(1), 1L);
+        when(paystackService.listTransactions(eq(T0.plusSeconds(1).minus(LOOKBACK)), any(), eq(1), anyInt()))
+                .thenReturn(page(List.of(transaction(4, "success"), transaction(3, "success")), 2));
+        when(paystackService.listTransactions(eq(T0.plusSeconds(1).minus(LOOKBACK)), any(), eq(2), anyInt()))
+                .thenReturn(page(List.of(transaction(2, "success"), transaction(1, "success")), 2));
+        noTransfers();
+        when(transactionRecordRepository.findAllForUpdate(anyList()))
+                .thenReturn(List.of(TransactionRecord.from(transaction(1, "success"))));
+        
+        Map<String, Integer> stored = service.syncAll().orElseThrow();
+        
+        assertThat(stored).containsEntry(PaystackSyncService.TRANSACTIONS, 3);
+        ArgumentCaptor<List<TransactionRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRecordRepository, times(2)).saveAll(saved.capture());
+        assertThat(saved.getAllValues().get(0)).extracting(TransactionRecord::getReference).containsExactly("REF_2");
+        assertThat(saved.getAllValues().get(1)).extracting(TransactionRecord::getReference).containsExactly("REF_3", "REF_4");
+        assertThat(cursor.getLastCreatedAt()).isEqualTo(T0.plusSeconds(4));
+        assertThat(cursor.getLastId()).isEqualTo(4L);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void rereadsPendingRowsBehindTheCursorAndStoresThemOnceFinal() {
+        SyncCursor cursor = cursorAt(T0.plusSeconds(5), 5L);
+        when(paystackService.listTransactions(eq(T0.plusSeconds(5).minus(LOOKBACK)), any(), eq(1), anyInt()))
+                .thenReturn(page(List.of(transaction(5, "success"), transaction(2, "success")), 1));
+        noTransfers();
+        when(transactionRecordRepository.findAllForUpdate(anyList())).thenReturn(List.of(
+                TransactionRecord.from(transaction(2, "pending")), TransactionRecord.from(transaction(5, "success"))));
+        
+        Map<String, Integer> stored = service.syncAll().orElseThrow();
+        
+        assertThat(stored).containsEntry(PaystackSyncService.TRANSACTIONS, 1);
+        ArgumentCaptor<List<TransactionRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRecordRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(TransactionRecord::getReference, TransactionRecord::getStatus)
+                .containsExactly(tuple("REF_2", "success"));
+        verify(transactionLedger).evict("REF_2");
+        verify(transactionLedger, never()).evict("REF_5");
+        assertThat(cursor.getLastCreatedAt()).isEqualTo(T0.plusSeconds(5));
+    }
+    
+    @Test
+    void storesRowsWithoutACreationTimeWithoutMovingTheCursor() {
+        SyncCursor cursor = cursorAt(T0.plusSeconds(5), 5L);
+        TransactionVerificationData undated = transaction(6, "success");
+        undated.setCreatedAt(null);
+        when(paystackService.listTransactions(any(), any(), eq(1), anyInt())).thenReturn(page(List.of(undated), 1));
+        noTransfers();
+        when(transactionRecordRepository.findAllForUpdate(anyList())).thenReturn(List.of());
+        
+        Map<String, Integer> stored = service.syncAll().orElseThrow();
+        
+        assertThat(stored).containsEntry(PaystackSyncService.TRANSACTIONS, 1);
+        assertThat(cursor.getLastCreatedAt()).isEqualTo(T0.plusSeconds(5));
+        assertThat(cursor.getLastId()).isEqualTo(5L);
+    }
+    
+    private SyncCursor cursorAt(Instant createdAt, Long id) {
+        SyncCursor cursor = new SyncCursor(PaystackSyncService.TRANSACTIONS);
+        cursor.advance(createdAt, id);
+        when(syncCursorRepository.findById(PaystackSyncService.TRANSACTIONS)).thenReturn(Optional.of(cursor));
+        return cursor;
+    }
+    
+    private void noTransfers() {
+        when(paystackService.listTransfers(any(), any(), anyInt(), anyInt()))
+                .thenReturn(new TransferListResponse(true, "ok", List.of(), null));
+    }
+    
+    private static TransactionListResponse page(List<TransactionVerificationData> items, int pageCount) {
+        return new TransactionListResponse(true, "ok", items, new ListMeta(null, null, null, null, pageCount));
+    }
+    
+    private static TransactionVerificationData transaction(int n, String status) {
+        TransactionVerificationData data = new TransactionVerificationData();
+        data.setId((long) n);
+        data.setReference("REF_" + n);
+        data.setStatus(status);
+        data.setCreatedAt(T0.plusSeconds(n).toString());
+        return data;
+    }
+}
@@ -0,0 +1,112 @@
+package com.payment.paystack.service;
+
+import com.payment.paystack.config.PaystackProperties;
+import com.payment.paystack.entity.TransactionRecord;
+import com.payment.paystack.entity.TransferRecord;
+import com.payment.paystack.event.TransactionFinalizedEvent;
+import com.payment.paystack.event.TransferFinalizedEvent;
+import com.payment.paystack.repository.TransactionRecordRepository;
+import com.payment.paystack.repository.TransferRecordRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatsServiceTests {
+    
+    private static final Instant HOUR = Instant.now().truncatedTo(ChronoUnit.HOURS);
+    
+    private final TransactionRecordRepository transactionRecordRepository = mock(TransactionRecordRepository.class);
+    private final TransferRecordRepository transferRecordRepository = mock(TransferRecordRepository.class);
+    private final StatsService statsService = new StatsService(transactionRecordRepository, transferRecordRepository,
+            new PaystackProperties(), mock(PlatformTransactionManager.class), mock(EntityManager.class));
+    
+    @Test
+    void reversedTransferIsTakenOutOfTheHourItWasCountedIn() {
+        TransferRecord success = transfer("success", HOUR.minus(2, ChronoUnit.HOURS), 1);
+        statsService.onTransferFinalized(new TransferFinalizedEvent(success, null));
+        TransferRecord reversed = transfer("reversed", HOUR, 2);
+        statsService.onTransferFinalized(new TransferFinalizedEvent(reversed, success.toBuilder().build()));
+        
+        assertThat(count("payouts", "by_hour", HOUR.minus(2, ChronoUnit.HOURS).toString())).isZero();
+        assertThat(count("payouts", "by_hour", HOUR.toString())).isNull();
+        assertThat(count("payouts", "by_status", "success")).isZero();
+        assertThat(count("payouts", "by_status", "reversed")).isEqualTo(1);
+    }
+    
+    @Test
+    void reversalOfAnAlreadyPrunedHourDoesNotBringItBack() {
+        Instant expired = HOUR.minus(new PaystackProperties().getStats().getHourlyRetention()).minus(1, ChronoUnit.HOURS);
+        TransferRecord success = transfer("success", expired, 1);
+        statsService.onTransferFinalized(new TransferFinalizedEvent(success, null));
+        statsService.pruneHourly();
+        assertThat(count("payouts", "by_hour", expired.toString())).isNull();
+        
+        statsService.onTransferFinalized(new TransferFinalizedEvent(transfer("reversed", HOUR, 2), success));
+        
+        assertThat(count("payouts", "by_hour", expired.toString())).isNull();
+        assertThat(count("payouts", "by_status", "success")).isZero();
+    }
+    
+    @Test
+    void rebuildReplaysStatesRecordedWhileScanning() {
+        TransactionRecord settled = transaction("REF_OLD", "success", Instant.now().minus(1, ChronoUnit.DAYS), 1);
+        TransactionRecord scannedAfterChange = transaction("REF_RACE", "success", Instant.now(), 1);
+        TransactionRecord missedByScan = transaction("REF_NEW", "success", Instant.now(), 1);
+        when(transactionRecordRepository.streamAll()).thenAnswer(invocation -> Stream.of(settled, scannedAfterChange)
+                .peek(row -> {
+                    if (row == settled) {
+                        // Committed while the scan runs: one the scan reads, one it does not
+                        statsService.onTransactionFinalized(new TransactionFinalizedEvent(scannedAfterChange, null));
+                        statsService.onTransactionFinalized(new TransactionFinalizedEvent(missedByScan, null));
+                    }
+                }));
+        when(transferRecordRepository.streamAll()).thenReturn(Stream.empty());
+        
+        statsService.rebuild();
+        
+        assertThat(count("revenue", "by_status", "success")).isEqualTo(3);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Long count(String rollup, String dimension, String key) {
+        Map<String, Object> snapshot = (Map<String, Object>) statsService.getStats().get(rollup);
+        Map<String, Map<String, Map<String, Long>>> buckets =
+                (Map<String, Map<String, Map<String, Long>>>) snapshot.get(dimension);
+        Map<String, Long> totals = buckets.getOrDefault("NGN", Map.of()).get(key);
+        return totals != null ? totals.get("count") : null;
+    }
+    
+    private static TransferRecord transfer(String status, Instant updatedAt, long revision) {
+        return TransferRecord.builder()
+                .id(42L)
+                .status(status)
+                .currency("NGN")
+                .amount(new BigDecimal("5000"))
+                .updatedAt(updatedAt)
+                .syncedAt(Instant.now())
+                .revision(revision)
+                .build();
+    }
+    
+    private static TransactionRecord transaction(String reference, String status, Instant storedAt, long revision) {
+        return TransactionRecord.builder()
+                .reference(reference)
+                .status(status)
+                .currency("NGN")
+                .amount(new BigDecimal("10000"))
+                .createdAt(HOUR)
+                .updatedAt(storedAt)
+                .revision(revision)
+                .build();
+    }
+}
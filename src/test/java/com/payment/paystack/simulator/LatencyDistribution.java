@@ -0,0 +1,51 @@
+package com.payment.paystack.simulator;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response latency model for the simulator
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+    
+    /**
+     * Next latency to inject, in nanoseconds
+     */
+    long nextNanos();
+    
+    static LatencyDistribution none() {
+        return () -> 0L;
+    }
+    
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return () -> nanos;
+    }
+    
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long low = min.toNanos();
+        long high = max.toNanos();
+        return () -> low == high ? low : ThreadLocalRandom.current().nextLong(low, high);
+    }
+    
+    /**
+     * Log-normal latency with the given median and 99th percentile, which
+     * gives the long right tail typical of a remote API
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double mu = Math.log(median.toNanos());
+        double sigma = (Math.log(p99.toNanos()) - mu) / 2.3263478740408408; // z(0.99)
+        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+    
+    /**
+     * Mostly fast, occasionally very slow: base latency with the given
+     * probability of a stall
+     */
+    static LatencyDistribution withStalls(LatencyDistribution base, double stallProbability, Duration stall) {
+        long stallNanos = stall.toNanos();
+        return () -> base.nextNanos()
+                + (ThreadLocalRandom.current().nextDouble() < stallProbability ? stallNanos : 0L);
+    }
+}
@@ -0,0 +1,356 @@
+package com.payment.paystack.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Embeddable stand-in for the Paystack API, for offline and load testing.
+ *
+ * Implements transaction initialize/verify, transfer recipients, single and
+ * bulk transfers. Latency, error rate and rate limiting (429) are
+ * configurable, and settled payments and transfers are announced through
+ * signed webhooks when a webhook URL is set.
+ */
+@Slf4j
+public class PaystackSimulator implements AutoCloseable {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService webhooks = Executors.newSingleThreadScheduledExecutor();
+    private final HttpClient webhookClient = HttpClient.newHttpClient();
+    private final Map<String, Map<String, Object>> transactions = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong(1_000_000);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Object rateLock = new Object();
+    private long windowStart = System.nanoTime();
+    private int windowCount;
+    private volatile String webhookUrl;
+    
+    /**
+     * Simulator settings. Unset values mean no latency, no errors, no rate
+     * limit and no webhooks. The rate limit allows rateLimit requests per
+     * rateLimitWindow (one second unless set).
+     */
+    @Builder
+    public record Settings(
+            LatencyDistribution latency,
+            double errorRate,
+            int rateLimit,
+            Duration rateLimitWindow,
+            String webhookUrl,
+            String webhookSecret,
+            Duration settleAfter) {
+        
+        public Settings {
+            latency = latency != null ? latency : LatencyDistribution.none();
+            rateLimitWindow = rateLimitWindow != null ? rateLimitWindow : Duration.ofSeconds(1);
+            settleAfter = settleAfter != null ? settleAfter : Duration.ofMillis(200);
+        }
+    }
+    
+    public PaystackSimulator(Settings settings) throws IOException {
+        this.settings = settings;
+        this.webhookUrl = settings.webhookUrl();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.setExecutor(handlers);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+        log.info("Paystack simulator listening on {}", baseUrl());
+    }
+    
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Where to deliver webhooks, for targets that start after the simulator
+     */
+    public void setWebhookUrl(String webhookUrl) {
+        this.webhookUrl = webhookUrl;
+    }
+    
+    public long requestCount() {
+        return requests.get();
+    }
+    
+    public long rateLimitedCount() {
+        return rateLimited.get();
+    }
+    
+    public long failedCount() {
+        return failed.get();
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        webhooks.shutdownNow();
+        handlers.shutdownNow();
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            sleepNanos(settings.latency().nextNanos());
+            
+            if (!acquireRate()) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                send(exchange, 429, error("Rate limit exceeded"));
+                return;
+            }
+            if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                failed.incrementAndGet();
+                send(exchange, 500, error("Internal server error"));
+                return;
+            }
+            
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            
+            if ("POST".equals(method) && path.equals("/transaction/initialize")) {
+                initialize(exchange);
+            } else if ("GET".equals(method) && path.startsWith("/transaction/verify/")) {
+                verify(exchange, path.substring("/transaction/verify/".length()));
+            } else if ("POST".equals(method) && path.equals("/transferrecipient")) {
+                createRecipient(exchange);
+            } else if ("POST".equals(method) && path.equals("/transfer")) {
+                transfer(exchange);
+            } else if ("POST".equals(method) && path.equals("/transfer/bulk")) {
+                bulkTransfer(exchange);
+            } else {
+                send(exchange, 404, error("Route not found"));
+            }
+        } catch (Exception e) {
+            log.warn("Simulator error: {}", e.getMessage());
+        }
+    }
+    
+    private void initialize(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = readBody(exchange);
+        String reference = request.get("reference") != null
+                ? request.get("reference").toString()
+                : "SIM_" + UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        
+        Map<String, Object> transaction = new ConcurrentHashMap<>();
+        transaction.put("id", ids.incrementAndGet());
+        transaction.put("domain", "test");
+        transaction.put("status", "ongoing");
+        transaction.put("reference", reference);
+        transaction.put("amount", request.getOrDefault("amount", 0));
+        transaction.put("currency", request.getOrDefault("currency", "NGN"));
+        transaction.put("channel", "card");
+        transaction.put("gateway_response", "Pending");
+        transaction.put("created_at", Instant.now().toString());
+        transaction.put("customer", Map.of("email", String.valueOf(request.get("email"))));
+        transactions.put(reference, transaction);
+        
+        webhooks.schedule(() -> settle(reference), settings.settleAfter().toMillis(), TimeUnit.MILLISECONDS);
+        
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("authorization_url", "https://checkout.paystack.com/" + reference);
+        data.put("access_code", "ac_" + reference);
+        data.put("reference", reference);
+        send(exchange, 200, ok("Authorization URL created", data));
+    }
+    
+    private void verify(HttpExchange exchange, String reference) throws IOException {
+        Map<String, Object> transaction = transactions.get(reference);
+        if (transaction == null) {
+            send(exchange, 400, error("Transaction reference not found"));
+            return;
+        }
+        send(exchange, 200, ok("Verification successful", transaction));
+    }
+    
+    private void createRecipient(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = readBody(exchange);
+        
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("account_number", request.get("account_number"));
+        details.put("bank_code", request.get("bank_code"));
+        
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", ids.incrementAndGet());
+        data.put("domain", "test");
+        data.put("type", request.get("type"));
+        data.put("currency", request.getOrDefault("currency", "NGN"));
+        data.put("name", request.get("name"));
+        data.put("details", details);
+        data.put("recipient_code", "RCP_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12));
+        data.put("active", true);
+        data.put("created_at", Instant.now().toString());
+        send(exchange, 201, ok("Transfer recipient created successfully", data));
+    }
+    
+    private void transfer(HttpExchange exchange) throws IOException {
+        Map<String, Object> data = newTransfer(readBody(exchange));
+        send(exchange, 200, ok("Transfer has been queued", data));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void bulkTransfer(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = readBody(exchange);
+        List<Map<String, Object>> items = (List<Map<String, Object>>) request.getOrDefault("transfers", List.of());
+        
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (Map<String, Object> item : items) {
+            Map<String, Object> transfer = newTransfer(item);
+            transfer.putIfAbsent("currency", request.getOrDefault("currency", "NGN"));
+            data.add(transfer);
+        }
+        send(exchange, 200, ok(data.size() + " transfers queued.", data));
+    }
+    
+    private Map<String, Object> newTransfer(Map<String, Object> request) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", ids.incrementAndGet());
+        data.put("integration", 100000);
+        data.put("domain", "test");
+        data.put("amount", request.getOrDefault("amount", 0));
+        data.put("currency", request.getOrDefault("currency", "NGN"));
+        data.put("source", "balance");
+        data.put("reason", request.get("reason"));
+        data.put("recipient", request.get("recipient"));
+        data.put("reference", request.get("reference"));
+        data.put("status", "pending");
+        data.put("transfer_code", "TRF_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12));
+        data.put("created_at", Instant.now().toString());
+        data.put("updated_at", Instant.now().toString());
+        
+        Map<String, Object> settled = new LinkedHashMap<>(data);
+        settled.put("status", "success");
+        settled.put("recipient", Map.of("recipient_code", String.valueOf(request.get("recipient"))));
+        webhooks.schedule(() -> sendWebhook("transfer.success", settled),
+                settings.settleAfter().toMillis(), TimeUnit.MILLISECONDS);
+        return data;
+    }
+    
+    private void settle(String reference) {
+        Map<String, Object> transaction = transactions.get(reference);
+        if (transaction == null) {
+            return;
+        }
+        transaction.put("status", "success");
+        transaction.put("gateway_response", "Successful");
+        transaction.put("paid_at", Instant.now().toString());
+        sendWebhook("charge.success", transaction);
+    }
+    
+    private void sendWebhook(String event, Map<String, Object> data) {
+        String url = webhookUrl;
+        if (url == null || settings.webhookSecret() == null) {
+            return;
+        }
+        try {
+            byte[] body = MAPPER.writeValueAsBytes(Map.of("event", event, "data", data));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .header("x-paystack-signature", sign(body))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            webhookClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        } catch (Exception e) {
+            log.warn("Could not send {} webhook: {}", event, e.getMessage());
+        }
+    }
+    
+    private String sign(byte[] body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(settings.webhookSecret().getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+    
+    private boolean acquireRate() {
+        if (settings.rateLimit() <= 0) {
+            return true;
+        }
+        synchronized (rateLock) {
+            long now = System.nanoTime();
+            if (now - windowStart >= settings.rateLimitWindow().toNanos()) {
+                windowStart = now;
+                windowCount = 0;
+            }
+            return ++windowCount <= settings.rateLimit();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            return body.length == 0 ? Map.of() : MAPPER.readValue(body, Map.class);
+        }
+    }
+    
+    private void send(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static Map<String, Object> ok(String message, Object data) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", true);
+        body.put("message", message);
+        body.put("data", data);
+        return body;
+    }
+    
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", false);
+        body.put("message", message);
+        return body;
+    }
+    
+    private static void sleepNanos(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
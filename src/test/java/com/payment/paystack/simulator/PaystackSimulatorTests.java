@@ -0,0 +1,63 @@
+package com.payment.paystack.simulator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaystackSimulatorTests {
+    
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {
+    };
+    
+    private final RestTemplate restTemplate = new RestTemplate();
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void initializeThenVerify() throws Exception {
+        try (PaystackSimulator simulator = new PaystackSimulator(PaystackSimulator.Settings.builder().build())) {
+            ResponseEntity<Map<String, Object>> initialized = restTemplate.exchange(
+                    simulator.baseUrl() + "/transaction/initialize",
+                    HttpMethod.POST,
+                    new HttpEntity<>(
+                            Map.of("email", "customer@example.com", "amount", 1000, "reference", "SIM_REF_1")),
+                    JSON_OBJECT);
+            assertThat(initialized.getBody()).containsEntry("status", true);
+            
+            Map<String, Object> verified = get(simulator.baseUrl() + "/transaction/verify/SIM_REF_1").getBody();
+            assertThat((Map<String, Object>) verified.get("data")).containsEntry("reference", "SIM_REF_1");
+        }
+    }
+    
+    @Test
+    void rateLimitReturns429() throws Exception {
+        // A window far longer than the test, so both requests always fall in it
+        PaystackSimulator.Settings settings = PaystackSimulator.Settings.builder()
+                .rateLimit(1)
+                .rateLimitWindow(Duration.ofHours(1))
+                .build();
+        try (PaystackSimulator simulator = new PaystackSimulator(settings)) {
+            String url = simulator.baseUrl() + "/transaction/verify/UNKNOWN";
+            assertThatThrownBy(() -> get(url))
+                    .isInstanceOf(HttpClientErrorException.BadRequest.class);
+            assertThatThrownBy(() -> get(url))
+                    .isInstanceOfSatisfying(HttpClientErrorException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+            assertThat(simulator.rateLimitedCount()).isEqualTo(1);
+        }
+    }
+    
+    private ResponseEntity<Map<String, Object>> get(String url) {
+        return restTemplate.exchange(url, HttpMethod.GET, null, JSON_OBJECT);
+    }
+}
@@ -0,0 +1,121 @@
+#!/bin/bash
+
+# ============================================
+# STARTUP BENCHMARK
+# ============================================
+# Measures time to the first successful /environment response and the
+# resident memory at that point, for each packaging mode that has been built:
+#
+#   jvm       plain executable jar                 ./mvnw package
+#   aot       jar with Spring AOT                  ./mvnw -Paot package
+#   cds       extracted jar + AppCDS archive       (built by this script)
+#   aot-cds   Spring AOT + AppCDS                  ./mvnw -Paot package
+#   native    GraalVM native image                 ./mvnw -Pnative native:compile
+#
+# Usage: ./startup_benchmark.sh [runs] [modes...]
+# ============================================
+
+RUNS=${1:-5}
+shift
+MODES=${@:-jvm aot cds aot-cds native}
+
+JAR=$(ls target/paystack-*.jar 2>/dev/null | grep -v original | head -1)
+NATIVE=target/paystack
+CDS_DIR=target/cds
+PORT=${PORT:-18080}
+URL="http://localhost:$PORT/api/paystack/environment"
+
+APP_ARGS="--server.port=$PORT \
+  --paystack.active-env=test \
+  --paystack.test.base-url=http://127.0.0.1:9 \
+  --paystack.test.secret-key=sk_test_benchmark \
+  --paystack.webhook-secret=benchmark \
+  --logging.level.root=WARN"
+
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m'
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+rss_kb() {
+    awk '/VmRSS/ { print $2 }' "/proc/$1/status" 2>/dev/null
+}
+
+# Train an AppCDS archive from an extracted jar (Spring Boot 3.3+)
+build_cds() {
+    local extra=$1
+    local archive=$2
+    rm -rf "$CDS_DIR"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$CDS_DIR" > /dev/null || return 1
+    java -XX:ArchiveClassesAtExit="$archive" -Dspring.context.exit=onRefresh $extra \
+        -jar "$CDS_DIR/$(basename "$JAR")" $APP_ARGS > /dev/null 2>&1
+    [ -f "$archive" ]
+}
+
+command_for() {
+    case $1 in
+        jvm)     echo "java -jar $JAR" ;;
+        aot)     echo "java -Dspring.aot.enabled=true -jar $JAR" ;;
+        cds)     echo "java -XX:SharedArchiveFile=target/app.jsa -jar $CDS_DIR/$(basename "$JAR")" ;;
+        aot-cds) echo "java -Dspring.aot.enabled=true -XX:SharedArchiveFile=target/app-aot.jsa -jar $CDS_DIR/$(basename "$JAR")" ;;
+        native)  echo "$NATIVE" ;;
+    esac
+}
+
+prepare() {
+    case $1 in
+        jvm)     [ -n "$JAR" ] ;;
+        aot)     [ -n "$JAR" ] && unzip -l "$JAR" | grep -q "__ApplicationContextInitializer" ;;
+        cds)     [ -n "$JAR" ] && build_cds "" target/app.jsa ;;
+        aot-cds) prepare aot && build_cds "-Dspring.aot.enabled=true" target/app-aot.jsa ;;
+        native)  [ -x "$NATIVE" ] ;;
+    esac
+}
+
+run_once() {
+    local cmd=$1
+    local start=$(now_ms)
+    $cmd $APP_ARGS > /dev/null 2>&1 &
+    local pid=$!
+
+    until curl -sf "$URL" > /dev/null 2>&1; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "failed"
+            return 1
+        fi
+        sleep 0.01
+    done
+
+    local elapsed=$(( $(now_ms) - start ))
+    local rss=$(rss_kb $pid)
+    kill $pid
+    wait $pid 2>/dev/null
+    echo "$elapsed $rss"
+}
+
+printf "%-8s %12s %12s\n" "mode" "ready (ms)" "rss (MB)"
+for mode in $MODES; do
+    if ! prepare $mode; then
+        echo -e "${YELLOW}$mode: not built, skipping${NC}"
+        continue
+    fi
+
+    cmd=$(command_for $mode)
+    total_ms=0
+    total_rss=0
+    ok=0
+    for i in $(seq 1 $RUNS); do
+        result=$(run_once "$cmd") || continue
+        read ms rss <<< "$result"
+        total_ms=$((total_ms + ms))
+        total_rss=$((total_rss + rss))
+        ok=$((ok + 1))
+    done
+
+    if [ $ok -gt 0 ]; then
+        printf "${GREEN}%-8s${NC} %12d %12d\n" $mode $((total_ms / ok)) $((total_rss / ok / 1024))
+    fi
+done